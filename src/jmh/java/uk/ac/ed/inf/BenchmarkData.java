@@ -0,0 +1,95 @@
+package uk.ac.ed.inf;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.*;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Shared input of the benchmarks, read from the checked-in snapshots: every order of the orders snapshot, one day
+ * of it, and probe positions on a grid over the central area snapshot. The repository has no restaurants or
+ * no-fly zone snapshots, so those are read from the test fixtures.
+ */
+@State(Scope.Benchmark)
+public class BenchmarkData {
+    static final String DAY = "2023-01-01";
+    static final int GRID_SIZE = 32;
+
+    LngLat startCoordinates = new LngLat(-3.186874, 55.944494);
+    Restaurant[] restaurants;
+    NoFlyZones[] noFlyZones;
+    NoFlyZoneIndex noFlyZoneIndex;
+    MenuIndex menuIndex;
+    Order[] allOrders;
+    Order[] dayOrders;
+    LngLat[] probes;
+    HashMap<Restaurant, ArrayList<DronePath>> restaurantPaths;
+    ArrayList<Map.Entry<Restaurant, Integer>> restaurantsByDistance;
+    HashMap<Restaurant, ArrayList<Order>> validOrders;
+    ValidatedOrders validatedDay;
+    FlightLog flightLog;
+
+    /**
+     * Reads the snapshots and prepares the planned paths and a flown day
+     */
+    @Setup(Level.Trial)
+    public void load() {
+        try {
+            this.restaurants = Json.MAPPER.readValue(Path.of("src/test/resources/restaurants.json").toFile(),
+                    Restaurant[].class);
+            this.noFlyZones = Json.MAPPER.readValue(Path.of("src/test/resources/noFlyZones.json").toFile(),
+                    NoFlyZones[].class);
+            JsonNode centralArea = Json.MAPPER.readTree(Path.of("centralArea").toFile());
+            this.probes = gridOver(centralArea);
+            this.allOrders = Order.getOrdersFromFile(Path.of("orders"), null);
+            this.dayOrders = Order.getOrdersFromFile(Path.of("orders"), DAY);
+            this.noFlyZoneIndex = new NoFlyZoneIndex(this.noFlyZones);
+            this.menuIndex = new MenuIndex(this.restaurants);
+            this.restaurantPaths = Drone.GreedyAlgorithm(this.restaurants, this.startCoordinates, this.noFlyZones);
+            this.restaurantsByDistance = Restaurant.getRestaurantsByDistance(this.restaurantPaths, this.restaurants);
+            // every order of the snapshot as one busy day, so the drone uses its whole battery
+            this.validOrders = ValidatedOrders.validate(this.menuIndex, Arrays.asList(this.allOrders))
+                    .getValidOrdersByRestaurant();
+            this.validatedDay = ValidatedOrders.validate(this.menuIndex, Arrays.asList(this.dayOrders));
+            this.flightLog = new FlightLog();
+            new Drone().performDelivery(this.flightLog, this.restaurantPaths, this.validOrders,
+                    this.restaurantsByDistance);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InvalidPizzaCombinationException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Spreads probe positions evenly over the bounding box of the central area
+     *
+     * @param centralArea corners of the central area
+     * @return array of probe positions
+     */
+    private static LngLat[] gridOver(JsonNode centralArea) {
+        double minLng = Double.MAX_VALUE;
+        double minLat = Double.MAX_VALUE;
+        double maxLng = -Double.MAX_VALUE;
+        double maxLat = -Double.MAX_VALUE;
+        for (JsonNode corner : centralArea) {
+            minLng = Math.min(minLng, corner.get("longitude").asDouble());
+            minLat = Math.min(minLat, corner.get("latitude").asDouble());
+            maxLng = Math.max(maxLng, corner.get("longitude").asDouble());
+            maxLat = Math.max(maxLat, corner.get("latitude").asDouble());
+        }
+        LngLat[] probes = new LngLat[GRID_SIZE * GRID_SIZE];
+        for (int x = 0; x < GRID_SIZE; x++) {
+            for (int y = 0; y < GRID_SIZE; y++) {
+                probes[x * GRID_SIZE + y] = new LngLat(minLng + (maxLng - minLng) * x / (GRID_SIZE - 1),
+                        minLat + (maxLat - minLat) * y / (GRID_SIZE - 1));
+            }
+        }
+        return probes;
+    }
+}
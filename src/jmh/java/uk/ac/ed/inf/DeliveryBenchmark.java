@@ -0,0 +1,46 @@
+package uk.ac.ed.inf;
+
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmarks of flying a day of deliveries and of writing the three output files. The writers write to a stream
+ * that discards its input, so only serialisation is measured.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DeliveryBenchmark {
+    @Benchmark
+    public ArrayList<Order> performDelivery(BenchmarkData data) {
+        return new Drone().performDelivery(new FlightLog(), data.restaurantPaths, data.validOrders,
+                data.restaurantsByDistance);
+    }
+
+    @Benchmark
+    public void writeFlightPath(BenchmarkData data) {
+        try (FlightPathWriter writer = new FlightPathWriter(OutputStream.nullOutputStream())) {
+            writer.writeLog(data.flightLog);
+        }
+    }
+
+    @Benchmark
+    public void writeDroneGeoJson(BenchmarkData data) {
+        GeoJsonWriter.write(data.flightLog, OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public void writeOrderOutcomes(BenchmarkData data) {
+        try (OrderOutcomeWriter writer = new OrderOutcomeWriter(OutputStream.nullOutputStream())) {
+            for (Order order : data.validatedDay.getOrders()) {
+                OrderOutcome outcome = data.validatedDay.getOutcome(order.orderNo);
+                writer.writeOutcome(order.orderNo, outcome, outcome == OrderOutcome.Delivered
+                        ? order.priceTotalInPence : 0);
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package uk.ac.ed.inf;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks of path planning and of the no-fly zone checks it is built on
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PlanningBenchmark {
+    @Benchmark
+    public HashMap<Restaurant, ArrayList<DronePath>> greedyAlgorithm(BenchmarkData data) {
+        return Drone.GreedyAlgorithm(data.restaurants, data.startCoordinates, data.noFlyZones);
+    }
+
+    @Benchmark
+    public HashMap<Restaurant, ArrayList<DronePath>> aStar(BenchmarkData data) {
+        return Drone.planRestaurantPaths(PathfindingAlgorithm.A_STAR, data.restaurants, data.startCoordinates,
+                data.noFlyZoneIndex);
+    }
+
+    @Benchmark
+    public void isDroneInNoFlyZone(BenchmarkData data, Blackhole blackhole) {
+        for (LngLat probe : data.probes) {
+            blackhole.consume(probe.isDroneInNoFlyZone(data.noFlyZones));
+        }
+    }
+
+    @Benchmark
+    public void isDroneInNoFlyZoneIndexed(BenchmarkData data, Blackhole blackhole) {
+        for (LngLat probe : data.probes) {
+            blackhole.consume(probe.isDroneInNoFlyZone(data.noFlyZoneIndex));
+        }
+    }
+
+    @Benchmark
+    public void isDronePassingNoFlyZone(BenchmarkData data, Blackhole blackhole) {
+        for (LngLat probe : data.probes) {
+            blackhole.consume(probe.isDronePassingNoFlyZone(data.noFlyZones, data.startCoordinates));
+        }
+    }
+
+    @Benchmark
+    public void isDronePassingNoFlyZoneIndexed(BenchmarkData data, Blackhole blackhole) {
+        for (LngLat probe : data.probes) {
+            blackhole.consume(probe.isDronePassingNoFlyZone(data.noFlyZoneIndex, data.startCoordinates));
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package uk.ac.ed.inf;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks of order validation over one day and over the whole orders snapshot
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ValidationBenchmark {
+    @Benchmark
+    public void isOrderValidDay(BenchmarkData data, Blackhole blackhole) {
+        for (Order order : data.dayOrders) {
+            blackhole.consume(order.isOrderValid(data.restaurants));
+        }
+    }
+
+    @Benchmark
+    public void isOrderValidFullDump(BenchmarkData data, Blackhole blackhole) {
+        for (Order order : data.allOrders) {
+            blackhole.consume(order.isOrderValid(data.restaurants));
+        }
+    }
+
+    @Benchmark
+    public void isOrderValidFullDumpIndexed(BenchmarkData data, Blackhole blackhole) {
+        for (Order order : data.allOrders) {
+            blackhole.consume(order.isOrderValid(data.menuIndex));
+        }
+    }
+
+    @Benchmark
+    public ValidatedOrders validateFullDump(BenchmarkData data) throws InvalidPizzaCombinationException {
+        return ValidatedOrders.validate(data.menuIndex, Arrays.asList(data.allOrders));
+    }
+}
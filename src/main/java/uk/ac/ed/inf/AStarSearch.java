@@ -0,0 +1,134 @@
+package uk.ac.ed.inf;
+
+import java.util.*;
+
+/**
+ * A class for computing flight paths with the A* search algorithm. The search runs over the same 16-direction
+ * lattice the drone flies on, so every move it produces is a move the greedy approach could have produced.
+ */
+public class AStarSearch {
+    /**
+     * Default number of positions the search may expand before giving up
+     */
+    public static final int DEFAULT_MAX_EXPANSIONS = 250_000;
+    private static final double STEP_LENGTH = MoveKernel.STEP_LENGTH;
+    private static final double QUANTUM = STEP_LENGTH / 3;
+
+    private final int maxExpansions;
+
+    /**
+     * A class representing a position reached during the search
+     */
+    private static class Node {
+        private final LngLat position;
+        private final Node parent;
+        private final Drone.Compass direction;
+        private final int movesFromStart;
+        private final double estimatedTotal;
+
+        Node(LngLat position, Node parent, Drone.Compass direction, int movesFromStart, double estimatedTotal) {
+            this.position = position;
+            this.parent = parent;
+            this.direction = direction;
+            this.movesFromStart = movesFromStart;
+            this.estimatedTotal = estimatedTotal;
+        }
+    }
+
+    /**
+     * Constructs a search with the default expansion limit
+     */
+    public AStarSearch() {
+        this(DEFAULT_MAX_EXPANSIONS);
+    }
+
+    /**
+     * Constructs a search that gives up after a fixed number of expanded positions
+     *
+     * @param maxExpansions maximum number of positions to expand
+     */
+    public AStarSearch(int maxExpansions) {
+        this.maxExpansions = maxExpansions;
+    }
+
+    /**
+     * Finds the shortest sequence of moves from a starting position to a position close to the target, while
+     * avoiding ending up in a no-fly zone or crossing one.
+     *
+     * @param start      starting position of the drone
+     * @param target     position the drone should end up close to
+     * @param noFlyZones index of no-fly zones
+     * @return list of moves to the target, or null if no path was found within the expansion limit
+     */
+    public ArrayList<DronePath> findPath(LngLat start, LngLat target, NoFlyZoneIndex noFlyZones) {
+        PriorityQueue<Node> open = new PriorityQueue<>(Comparator
+                .comparingDouble((Node node) -> node.estimatedTotal)
+                .thenComparing(node -> -node.movesFromStart));
+        Set<Long> closed = new HashSet<>();
+        Drone.Compass[] directions = Drone.Compass.values();
+        open.add(new Node(start, null, null, 0, heuristic(start, target)));
+        int expansions = 0;
+        while (!open.isEmpty() && expansions < this.maxExpansions) {
+            Node current = open.poll();
+            if (current.position.closeTo(target)) {
+                return reconstructPath(current);
+            }
+            if (!closed.add(quantize(current.position))) {
+                continue;
+            }
+            expansions++;
+            noFlyZones.countCandidateMoves(directions.length);
+            for (Drone.Compass direction : directions) {
+                LngLat nextPosition = current.position.nextPosition(direction);
+                if (closed.contains(quantize(nextPosition))
+                        || nextPosition.isDroneInNoFlyZone(noFlyZones)
+                        || current.position.isDronePassingNoFlyZone(noFlyZones, nextPosition)) {
+                    continue;
+                }
+                int moves = current.movesFromStart + 1;
+                open.add(new Node(nextPosition, current, direction, moves, moves + heuristic(nextPosition, target)));
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Admissible estimate of the number of moves left: every move covers at most one step length, and the
+     * target only has to be approached to within one step length.
+     *
+     * @param position current position
+     * @param target   target position
+     * @return lower bound on the number of remaining moves
+     */
+    private static double heuristic(LngLat position, LngLat target) {
+        return Math.max(0.0, position.distanceTo(target) - STEP_LENGTH) / STEP_LENGTH;
+    }
+
+    /**
+     * Maps a position to the lattice cell it lies in, so that positions which are practically the same are
+     * only expanded once
+     *
+     * @param position position to quantize
+     * @return key of the cell containing the position
+     */
+    private static long quantize(LngLat position) {
+        long x = Math.round(position.lng() / QUANTUM);
+        long y = Math.round(position.lat() / QUANTUM);
+        return (x << 32) ^ (y & 0xffffffffL);
+    }
+
+    /**
+     * Walks back from the final node to the start and builds the list of moves
+     *
+     * @param last node that reached the target
+     * @return list of moves in flying order
+     */
+    private static ArrayList<DronePath> reconstructPath(Node last) {
+        ArrayList<DronePath> path = new ArrayList<>();
+        for (Node node = last; node.parent != null; node = node.parent) {
+            path.add(new DronePath(node.direction.angle, node.parent.position, node.position));
+        }
+        Collections.reverse(path);
+        return path;
+    }
+}
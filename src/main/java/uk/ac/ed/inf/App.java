@@ -1,27 +1,275 @@
 package uk.ac.ed.inf;
 
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.List;
 import java.time.LocalDate;
 import java.time.DateTimeException;
-import com.mapbox.geojson.*;
-import com.google.gson.JsonObject;
 
 /**
  * Main class of the application
  */
 public class App {
+    /**
+     * Position the drone starts and ends every round trip at, Appleton Tower
+     */
+    static final LngLat START_COORDINATES = new LngLat(-3.186874, 55.944494);
+
+    /**
+     * Files a run can write for every day
+     */
+    enum Output {
+        DELIVERIES, FLIGHTPATH, DRONE, METRICS;
+
+        /**
+         * Parses a comma separated list of outputs, e.g. "deliveries,flightpath"
+         *
+         * @param names names of the outputs
+         * @return set of outputs
+         */
+        static Set<Output> parse(String names) {
+            Set<Output> outputs = EnumSet.noneOf(Output.class);
+            for (String name : names.split(",")) {
+                if (!name.isBlank()) {
+                    outputs.add(Output.valueOf(name.trim().toUpperCase()));
+                }
+            }
+            return outputs;
+        }
+    }
+
     /**
      * Main function of the application. It checks if console inputs are correct, executes drone behaviour
-     * and writes generated data to 3 different files.
+     * and writes generated data to 3 different files for every day.
      *
-     * @param args date and REST server address arguments
+     * @param args date (or date range "YYYY-MM-DD..YYYY-MM-DD") and REST server address arguments, optionally
+     *             followed by "--algorithm=greedy|astar|table", "--threads=N", "--path-cache=FILE|none",
+     *             "--scheduler=knapsack|closest", "--optimise-paths=true|false", "--drones=N" and the snapshot
+     *             files "--orders-file=FILE", "--restaurants-file=FILE" and "--no-fly-zones-file=FILE", which are
+     *             read instead of the REST server. "--jmx=true" exposes the run metrics over JMX, and
+     *             "--outputs=deliveries,flightpath,drone,metrics" chooses the files written (all by default).
+     *             With "serve" instead of a date, a resident {@link PlanningService} is started.
      * @throws InvalidPizzaCombinationException Exception to be thrown if invalid order combination is detected
+     * @throws IOException                      if the planning service can not be started
      */
-    public static void main( String[] args ) throws InvalidPizzaCombinationException {
-        String date = args[0];
+    public static void main( String[] args ) throws InvalidPizzaCombinationException, IOException {
+        if (args[0].equals("serve")) {
+            PlanningService.serve(args);
+            return;
+        }
+        List<String> dates = parseDates(args[0]);
         String restUrl = args[1];
-        if (date == null || !date.matches("\\d{4}-\\d{2}-\\d{2}")){
+        int threads = Integer.parseInt(getOption(args, "threads",
+                String.valueOf(Runtime.getRuntime().availableProcessors())));
+
+        Set<Output> outputs = Output.parse(getOption(args, "outputs", "deliveries,flightpath,drone,metrics"));
+        DataSource dataSource = getDataSource(args, restUrl);
+        RunMetrics metrics = new RunMetrics();
+        if (Boolean.parseBoolean(getOption(args, "jmx", "false"))) {
+            metrics.registerMBean();
+        }
+
+        Requests requests = startRequests(dataSource, dates, metrics);
+        recordTimeToFirstWork(metrics);
+
+        Restaurant[] restaurants = await(requests.restaurants());
+
+        LngLat startCoordinates = START_COORDINATES;
+        NoFlyZones[] noFlyZones = await(requests.noFlyZones());
+        NoFlyZoneIndex noFlyZoneIndex = new NoFlyZoneIndex(noFlyZones);
+
+        HashMap<Restaurant, ArrayList<DronePath>> restaurantPaths;
+        PlanningCounters planningCounters = new PlanningCounters();
+        try (RoutePlanner planner = createRoutePlanner(args, threads, planningCounters)) {
+            restaurantPaths = metrics.time("pathfinding",
+                    () -> planner.planRestaurantPaths(restaurants, startCoordinates, noFlyZoneIndex));
+            for (Map.Entry<Restaurant, Integer> saved : planner.getMovesSaved().entrySet()) {
+                metrics.count("movesSaved." + saved.getKey().name, saved.getValue());
+            }
+        }
+        metrics.count("candidateMovesEvaluated", planningCounters.getCandidateMoves());
+        metrics.count("zoneEdgeTests", planningCounters.getZoneEdgeTests());
+        ArrayList<Map.Entry<Restaurant, Integer>> restaurantsByDistance = Restaurant.getRestaurantsByDistance
+                (restaurantPaths, restaurants);
+        DeliveryScheduler scheduler = DeliveryScheduler.fromName(getOption(args, "scheduler", "knapsack"));
+        Fleet fleet = new Fleet(Integer.parseInt(getOption(args, "drones", "1")));
+        Map<String, ValidatedOrders> ordersByDate = await(requests.orders());
+
+        if (dates.size() == 1) {
+            String date = dates.get(0);
+            runDay(date, ordersByDate.get(date), restaurantPaths, restaurantsByDistance, scheduler, fleet,
+                    metrics.newDay(), outputs);
+            return;
+        }
+        List<Callable<Void>> days = new ArrayList<>();
+        for (String date : dates) {
+            days.add(() -> {
+                runDay(date, ordersByDate.get(date), restaurantPaths, restaurantsByDistance, scheduler, fleet,
+                        metrics.newDay(), outputs);
+                return null;
+            });
+        }
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            for (Future<Void> day : pool.invokeAll(days)) {
+                day.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RuntimeException(e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Delivers the validated orders of one day and writes the deliveries, flight path and drone files for it.
+     * The flight paths are shared between days and are only read. A fleet of more than one drone
+     * delivers from a shared {@link OrderDispatcher} instead of the scheduler, and every drone gets its own
+     * flight path and drone files, numbered from 1. The time spent in every phase of the day and counts of the
+     * orders and moves are written to the metrics file last. Only the chosen outputs are written, and the
+     * classes writing the others are never loaded.
+     *
+     * @param date                  order date
+     * @param validatedOrders       orders placed on that date with their outcomes
+     * @param restaurantPaths       paths to and from each restaurant
+     * @param restaurantsByDistance sorted array of restaurants, where the first entry is closest to starting point
+     * @param scheduler             scheduler choosing the orders delivered on the battery charge
+     * @param fleet                 drones delivering the orders
+     * @param metrics               metrics of the day
+     * @param outputs               files to write
+     */
+    static void runDay(String date, ValidatedOrders validatedOrders,
+                       HashMap<Restaurant, ArrayList<DronePath>> restaurantPaths,
+                       ArrayList<Map.Entry<Restaurant, Integer>> restaurantsByDistance,
+                       DeliveryScheduler scheduler, Fleet fleet, RunMetrics metrics, Set<Output> outputs) {
+        if (fleet.size() > 1) {
+            OrderDispatcher dispatcher = new OrderDispatcher(validatedOrders.getValidOrdersByRestaurant(),
+                    restaurantsByDistance);
+            List<Fleet.DroneRun> runs = metrics.time("performDelivery",
+                    () -> fleet.performDelivery(restaurantPaths, dispatcher, validatedOrders));
+            for (int i = 0; i < runs.size(); i++) {
+                String droneDate = date + "-drone-" + (i + 1);
+                writeFlightFiles(runs.get(i).flightLog(), droneDate, metrics, outputs);
+            }
+        } else {
+            FlightLog flightLog = new FlightLog();
+            DeliveryScheduler timedScheduler = (validOrders, byDistance, batteryCharge) -> metrics.time(
+                    "scheduling", () -> scheduler.schedule(validOrders, byDistance, batteryCharge));
+            ArrayList<Order> completedOrders = metrics.time("performDelivery",
+                    () -> new Drone().performDelivery(flightLog, restaurantPaths,
+                            validatedOrders.getValidOrdersByRestaurant(), restaurantsByDistance, timedScheduler));
+            for (Order order : completedOrders) {
+                validatedOrders.markDelivered(order);
+            }
+            writeFlightFiles(flightLog, date, metrics, outputs);
+        }
+
+        if (outputs.contains(Output.DELIVERIES)) {
+            metrics.time("writeOrderOutcomes", () -> Order.writeOrderOutcomes(validatedOrders, date));
+        }
+        for (Order order : validatedOrders.getOrders()) {
+            metrics.count("orders." + validatedOrders.getOutcome(order.orderNo), 1);
+        }
+        if (outputs.contains(Output.METRICS)) {
+            metrics.writeToFile(date);
+        }
+    }
+
+    /**
+     * Writes the chosen flight path and drone files of a flight log and counts the moves flown
+     *
+     * @param flightLog flight log of a drone
+     * @param fileDate  date part of the file names
+     * @param metrics   metrics of the day
+     * @param outputs   files to write
+     */
+    private static void writeFlightFiles(FlightLog flightLog, String fileDate, RunMetrics metrics,
+                                         Set<Output> outputs) {
+        metrics.count("movesFlown", flightLog.size());
+        if (outputs.contains(Output.FLIGHTPATH)) {
+            writeFlightPath(flightLog, fileDate, metrics);
+        }
+        if (outputs.contains(Output.DRONE)) {
+            metrics.time("writeDroneGeoJson", () -> Drone.writeDroneFlightPathToFileGeoJson(flightLog, fileDate));
+        }
+    }
+
+    /**
+     * Writes the flight path file of a flight log. Kept apart so that the writer class is only loaded when the
+     * file is written.
+     *
+     * @param flightLog flight log of a drone
+     * @param fileDate  date part of the file name
+     * @param metrics   metrics of the day
+     */
+    private static void writeFlightPath(FlightLog flightLog, String fileDate, RunMetrics metrics) {
+        metrics.time("writeFlightPath", () -> {
+            try (FlightPathWriter flightPath = new FlightPathWriter(fileDate)) {
+                flightPath.writeLog(flightLog);
+            }
+        });
+    }
+
+    /**
+     * Records the time from the start of the JVM to the moment the first data is requested, which is mostly
+     * spent loading and initialising classes, as the "timeToFirstWork" phase of the run
+     *
+     * @param metrics metrics of the run
+     */
+    private static void recordTimeToFirstWork(RunMetrics metrics) {
+        long timeToFirstWork = ManagementFactory.getRuntimeMXBean().getUptime();
+        metrics.addTime("timeToFirstWork", TimeUnit.MILLISECONDS.toNanos(timeToFirstWork));
+    }
+
+    /**
+     * Parses the date argument, which is either a single date or an inclusive range "YYYY-MM-DD..YYYY-MM-DD"
+     *
+     * @param argument date argument
+     * @return list of dates in order
+     */
+    static List<String> parseDates(String argument) {
+        if (argument == null) {
+            throw new DateTimeException("Incorrect format or no date");
+        }
+        String[] bounds = argument.split("\\.\\.", -1);
+        if (bounds.length > 2) {
+            throw new DateTimeException("Incorrect format or no date");
+        }
+        LocalDate first = parseDate(bounds[0]);
+        LocalDate last = bounds.length == 2 ? parseDate(bounds[1]) : first;
+        if (last.isBefore(first)) {
+            throw new DateTimeException("Date range ends before it starts");
+        }
+        List<String> dates = new ArrayList<>();
+        for (LocalDate day = first; !day.isAfter(last); day = day.plusDays(1)) {
+            dates.add(day.toString());
+        }
+        return dates;
+    }
+
+    /**
+     * Parses a single date and checks that it is in the range orders are available for
+     *
+     * @param date date in the format YYYY-MM-DD
+     * @return parsed date
+     */
+    private static LocalDate parseDate(String date) {
+        if (!date.matches("\\d{4}-\\d{2}-\\d{2}")){
             throw new DateTimeException("Incorrect format or no date");
         }
         LocalDate parsedDate = LocalDate.parse(date);
@@ -29,30 +277,154 @@ public class App {
                 || parsedDate.isAfter(LocalDate.of(2023, 5, 31))) {
             throw new DateTimeException("Date out of range");
         }
-//
-        Order[] orders = Order.getOrdersFromServer(restUrl, date);
-        Restaurant[] restaurants = Restaurant.getRestaurantsFromRestServer(restUrl);
+        return parsedDate;
+    }
 
-        assert orders != null;
-        HashMap<Restaurant, ArrayList<Order>> restaurantOrders = Drone.getValidOrdersByDistance(restaurants, orders);
+    /**
+     * Chooses where the orders, restaurants and no-fly zones are read from. Data without a snapshot file
+     * given on the command line is requested from the REST server.
+     *
+     * @param args    command line arguments
+     * @param restUrl base address of the REST server
+     * @return data source
+     */
+    static DataSource getDataSource(String[] args, String restUrl) {
+        DataSource rest = new RestDataSource(restUrl);
+        String ordersFile = getOption(args, "orders-file", null);
+        String restaurantsFile = getOption(args, "restaurants-file", null);
+        String noFlyZonesFile = getOption(args, "no-fly-zones-file", null);
+        if (ordersFile == null && restaurantsFile == null && noFlyZonesFile == null) {
+            return rest;
+        }
+        return new SnapshotDataSource(ordersFile == null ? null : Path.of(ordersFile),
+                restaurantsFile == null ? null : Path.of(restaurantsFile),
+                noFlyZonesFile == null ? null : Path.of(noFlyZonesFile), rest);
+    }
 
-        LngLat startCoordinates = new LngLat(-3.186874, 55.944494);
-        NoFlyZones[] noFlyZones = CentralArea.getNoFlyZones(restUrl);
+    /**
+     * Creates the route planner chosen by the "--algorithm", "--path-cache" and "--optimise-paths" options
+     *
+     * @param args    command line arguments
+     * @param threads number of planning threads
+     * @return route planner
+     */
+    static RoutePlanner createRoutePlanner(String[] args, int threads) {
+        return createRoutePlanner(args, threads, null);
+    }
 
-        HashMap<Restaurant, ArrayList<DronePath>> restaurantPaths = Drone.GreedyAlgorithm(restaurants,
-                startCoordinates, noFlyZones);
-        ArrayList<Map.Entry<Restaurant, Integer>> restaurantsByDistance = Restaurant.getRestaurantsByDistance
-                (restaurantPaths, restaurants);
+    /**
+     * Creates the route planner chosen by the "--algorithm", "--path-cache" and "--optimise-paths" options, which adds
+     * its planning work to counters
+     *
+     * @param args     command line arguments
+     * @param threads  number of planning threads
+     * @param counters counters the planning work is added to, or null to not count it
+     * @return route planner
+     */
+    static RoutePlanner createRoutePlanner(String[] args, int threads, PlanningCounters counters) {
+        PathfindingAlgorithm algorithm = PathfindingAlgorithm.fromName(getOption(args, "algorithm", "greedy"));
+        String pathCacheFile = getOption(args, "path-cache", "paths.cache");
+        PathCache pathCache = pathCacheFile.equals("none") ? null : new PathCache(Path.of(pathCacheFile));
+        boolean optimisePaths = Boolean.parseBoolean(getOption(args, "optimise-paths", "true"));
+        return new RoutePlanner(algorithm, threads, pathCache, optimisePaths, counters);
+    }
+
+    /**
+     * The requests for the data of a run, made in the background
+     *
+     * @param restaurants restaurants and their menus
+     * @param noFlyZones  no-fly zones
+     * @param orders      orders of every date, validated while they are read
+     */
+    record Requests(CompletableFuture<Restaurant[]> restaurants, CompletableFuture<NoFlyZones[]> noFlyZones,
+                    CompletableFuture<Map<String, ValidatedOrders>> orders) {
+    }
 
-        ArrayList<Point> jsonPoints = new ArrayList<>();
-        ArrayList<JsonObject> movesAsJsonObjects = new ArrayList<>();
+    /**
+     * Starts the requests for the restaurants, the no-fly zones and the orders at the same time. Only the
+     * validation of the orders waits for the restaurants, as it needs their menus; the orders are already on
+     * their way by then. Reading the orders, including waiting for them to arrive, is timed as the
+     * "fetchOrders" phase and the rest of the validation as the "validation" phase.
+     *
+     * @param dataSource source of the data
+     * @param dates      list of dates whose orders are requested
+     * @param metrics    metrics of the run
+     * @return the requests
+     */
+    static Requests startRequests(DataSource dataSource, List<String> dates, RunMetrics metrics) {
+        CompletableFuture<Restaurant[]> restaurantsRequest = CompletableFuture.supplyAsync(
+                () -> metrics.time("fetchRestaurants", dataSource::getRestaurants));
+        CompletableFuture<NoFlyZones[]> noFlyZonesRequest = CompletableFuture.supplyAsync(
+                () -> metrics.time("fetchNoFlyZones", dataSource::getNoFlyZones));
+        CompletableFuture<OrderReader> ordersRequest = CompletableFuture.supplyAsync(
+                () -> metrics.time("fetchOrders", () -> dataSource.openOrders(dates)));
+        // orders are validated one at a time as they are read, while the paths are planned
+        CompletableFuture<Map<String, ValidatedOrders>> validatedOrders = ordersRequest.thenCombineAsync(
+                restaurantsRequest, (reader, restaurants) -> validateOrders(reader, restaurants, dates, metrics));
+        return new Requests(restaurantsRequest, noFlyZonesRequest, validatedOrders);
+    }
+
+    /**
+     * Validates the orders of every date while they are read, and splits the time it takes into the time spent
+     * reading the orders and the time spent validating them
+     *
+     * @param reader      reader over the orders, closed afterwards
+     * @param restaurants restaurants and their menus
+     * @param dates       list of dates
+     * @param metrics     metrics of the run
+     * @return map of date and the validated orders placed on it
+     */
+    private static Map<String, ValidatedOrders> validateOrders(OrderReader reader, Restaurant[] restaurants,
+                                                               List<String> dates, RunMetrics metrics) {
+        long start = System.nanoTime();
+        try (reader) {
+            return ValidatedOrders.validateByDate(new MenuIndex(restaurants), () -> reader, dates);
+        } catch (InvalidPizzaCombinationException e) {
+            throw new CompletionException(e);
+        } finally {
+            metrics.addTime("fetchOrders", reader.getReadNanos());
+            metrics.addTime("validation", System.nanoTime() - start - reader.getReadNanos());
+        }
+    }
 
-        ArrayList<Order> completedOrders = new Drone().performDelivery(movesAsJsonObjects, jsonPoints, restaurantPaths,
-                                                                 restaurantOrders, restaurantsByDistance);
-        List<JsonObject> jsonOrders = Drone.generateOrderOutcomes(completedOrders, restaurants, orders);
+    /**
+     * Waits for a request made in the background and rethrows its failure, if any
+     *
+     * @param request background request
+     * @param <T>     type of the result
+     * @return result of the request
+     * @throws InvalidPizzaCombinationException if the request validated an order with no restaurant that can
+     *                                          fulfill it
+     */
+    private static <T> T await(CompletableFuture<T> request) throws InvalidPizzaCombinationException {
+        try {
+            return request.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof InvalidPizzaCombinationException) {
+                throw (InvalidPizzaCombinationException) e.getCause();
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
 
-        Drone.writeDroneFlightPathToFile(movesAsJsonObjects, date);
-        Drone.writeDroneFlightPathToFileGeoJson(jsonPoints, date);
-        Order.writeOrderOutcomes(jsonOrders, date);
+    /**
+     * Gets the value of an optional "--name=value" console argument
+     *
+     * @param args         console arguments
+     * @param name         name of the option
+     * @param defaultValue value to use if the option is not given
+     * @return value of the option
+     */
+    static String getOption(String[] args, String name, String defaultValue) {
+        String prefix = "--" + name + "=";
+        for (int i = 2; i < args.length; i++) {
+            if (args[i].startsWith(prefix)) {
+                return args[i].substring(prefix.length());
+            }
+        }
+        return defaultValue;
     }
 }
@@ -1,6 +1,4 @@
 package uk.ac.ed.inf;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import java.net.URL;
 import java.io.IOException;
 
 /**
@@ -9,7 +7,8 @@ import java.io.IOException;
 public class CentralArea {
 
     /**
-     * Gets an array of no-fly zones from the server
+     * Gets an array of no-fly zones from the server. Every zone is compiled into its primitive form as soon
+     * as it has been read.
      *
      * @param serverAddress base URL address of server
      * @return no-fly zone array
@@ -20,7 +19,11 @@ public class CentralArea {
                 serverAddress = serverAddress + "/";
             }
             String url = serverAddress + "noFlyZones";
-            return new ObjectMapper().readValue(new URL(url), NoFlyZones[].class);
+            NoFlyZones[] noFlyZones = RestClient.getJson(url, Json.NO_FLY_ZONES);
+            for (NoFlyZones zone : noFlyZones) {
+                zone.compile();
+            }
+            return noFlyZones;
         } catch (IOException e) {
             e.printStackTrace();
         }
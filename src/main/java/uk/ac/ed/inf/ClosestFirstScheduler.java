@@ -0,0 +1,29 @@
+package uk.ac.ed.inf;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A scheduler that delivers the orders of the closest restaurant first and moves on to the next closest one
+ * once it has no orders left or its round trip no longer fits in the remaining charge
+ */
+public class ClosestFirstScheduler implements DeliveryScheduler {
+    @Override
+    public List<Delivery> schedule(HashMap<Restaurant, ArrayList<Order>> orders,
+                                   ArrayList<Map.Entry<Restaurant, Integer>> restaurantsByDistance,
+                                   int batteryCharge) {
+        List<Delivery> deliveries = new ArrayList<>();
+        for (Map.Entry<Restaurant, Integer> restaurant : restaurantsByDistance) {
+            for (Order order : orders.getOrDefault(restaurant.getKey(), new ArrayList<>())) {
+                if (batteryCharge < restaurant.getValue()) {
+                    break;
+                }
+                deliveries.add(new Delivery(restaurant.getKey(), order));
+                batteryCharge = batteryCharge - restaurant.getValue();
+            }
+        }
+        return deliveries;
+    }
+}
@@ -0,0 +1,126 @@
+package uk.ac.ed.inf;
+
+import java.awt.geom.Line2D;
+import java.util.List;
+
+/**
+ * A class holding the outline of a no-fly zone in flat primitive arrays. It is built once from the deserialized
+ * coordinates, so the checks made on every candidate move neither unbox coordinates nor allocate objects.
+ */
+public class CompiledNoFlyZone {
+    private final double[] lngs;
+    private final double[] lats;
+    private final double[] inverseSlopes;
+    public final double minLng;
+    public final double minLat;
+    public final double maxLng;
+    public final double maxLat;
+
+    /**
+     * Compiles the outline of a no-fly zone
+     *
+     * @param coordinates list of [longitude, latitude] vertices of the zone
+     */
+    public CompiledNoFlyZone(List<List<Double>> coordinates) {
+        int size = coordinates.size();
+        this.lngs = new double[size];
+        this.lats = new double[size];
+        this.inverseSlopes = new double[size];
+        double minLng = Double.POSITIVE_INFINITY;
+        double minLat = Double.POSITIVE_INFINITY;
+        double maxLng = Double.NEGATIVE_INFINITY;
+        double maxLat = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < size; i++) {
+            this.lngs[i] = coordinates.get(i).get(0);
+            this.lats[i] = coordinates.get(i).get(1);
+            minLng = Math.min(minLng, this.lngs[i]);
+            minLat = Math.min(minLat, this.lats[i]);
+            maxLng = Math.max(maxLng, this.lngs[i]);
+            maxLat = Math.max(maxLat, this.lats[i]);
+        }
+        for (int i = 0, j = size - 1; i < size; j = i++) {
+            this.inverseSlopes[i] = (this.lngs[j] - this.lngs[i]) / (this.lats[j] - this.lats[i]);
+        }
+        this.minLng = minLng;
+        this.minLat = minLat;
+        this.maxLng = maxLng;
+        this.maxLat = maxLat;
+    }
+
+    /**
+     * Gets the number of vertices, which is also the number of edges
+     *
+     * @return number of vertices of the zone
+     */
+    public int size() {
+        return this.lngs.length;
+    }
+
+    /**
+     * Gets the longitude of a vertex
+     *
+     * @param i number of the vertex
+     * @return longitude of the vertex
+     */
+    public double lng(int i) {
+        return this.lngs[i];
+    }
+
+    /**
+     * Gets the latitude of a vertex
+     *
+     * @param i number of the vertex
+     * @return latitude of the vertex
+     */
+    public double lat(int i) {
+        return this.lats[i];
+    }
+
+    /**
+     * Checks if a position is inside the zone with a ray casting test. Positions outside the bounding box are
+     * rejected without looking at the edges.
+     *
+     * @param lng longitude of the position
+     * @param lat latitude of the position
+     * @return boolean indicating if the position is inside the zone
+     */
+    public boolean contains(double lng, double lat) {
+        if (lng < this.minLng || lat < this.minLat || lng > this.maxLng || lat > this.maxLat) {
+            return false;
+        }
+        boolean isInZone = false;
+        for (int i = 0, j = this.lngs.length - 1; i < this.lngs.length; j = i++) {
+            if ((this.lats[i] > lat) != (this.lats[j] > lat)
+                    && lng < this.inverseSlopes[i] * (lat - this.lats[i]) + this.lngs[i]) {
+                isInZone = !isInZone;
+            }
+        }
+        return isInZone;
+    }
+
+    /**
+     * Checks if a move crosses any edge of the zone. Moves whose bounding box does not overlap the zone's are
+     * rejected without looking at the edges.
+     *
+     * @param fromLng longitude where the move starts
+     * @param fromLat latitude where the move starts
+     * @param toLng   longitude where the move ends
+     * @param toLat   latitude where the move ends
+     * @return boolean indicating if the move crosses the zone
+     */
+    public boolean isCrossing(double fromLng, double fromLat, double toLng, double toLat) {
+        if (Math.max(fromLng, toLng) < this.minLng || Math.min(fromLng, toLng) > this.maxLng
+                || Math.max(fromLat, toLat) < this.minLat || Math.min(fromLat, toLat) > this.maxLat) {
+            return false;
+        }
+        int size = this.lngs.length;
+        for (int i = 0; i < size; i++) {
+            int next = (i + 1) % size;
+            if (Line2D.linesIntersect(fromLng, fromLat, toLng, toLat,
+                    this.lngs[i], this.lats[i], this.lngs[next], this.lats[next])) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
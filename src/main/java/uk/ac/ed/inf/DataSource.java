@@ -0,0 +1,69 @@
+package uk.ac.ed.inf;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A source of the orders, restaurants and no-fly zones the drone works with, such as the REST server or local
+ * snapshot files. Every source returns the same objects for the same data.
+ */
+public interface DataSource {
+    /**
+     * Opens a reader over the orders placed on a date. Orders are read one at a time, so they can be validated
+     * before the rest of them have arrived.
+     *
+     * @param date order date
+     * @return order reader, to be closed by the caller
+     */
+    OrderReader openOrders(String date);
+
+    /**
+     * Opens one reader over the orders placed on any of several dates. The orders are requested at once, so
+     * they can be on their way while other data is still being fetched.
+     *
+     * @param dates list of dates
+     * @return order reader, to be closed by the caller
+     */
+    OrderReader openOrders(List<String> dates);
+
+    /**
+     * Gets the orders placed on a date
+     *
+     * @param date order date
+     * @return array of orders
+     */
+    default Order[] getOrders(String date) {
+        try (OrderReader reader = openOrders(date)) {
+            return reader.readAll();
+        }
+    }
+
+    /**
+     * Validates the orders placed on each of several dates while they are read
+     *
+     * @param dates     list of dates
+     * @param menuIndex index of the restaurant menus
+     * @return map of date and the validated orders placed on it
+     * @throws InvalidPizzaCombinationException if a valid order has no restaurant that can fulfill it
+     */
+    default Map<String, ValidatedOrders> validateOrdersByDate(List<String> dates, MenuIndex menuIndex)
+            throws InvalidPizzaCombinationException {
+        try (OrderReader reader = openOrders(dates)) {
+            return ValidatedOrders.validateByDate(menuIndex, () -> reader, dates);
+        }
+    }
+
+    /**
+     * Gets the restaurants and their menus
+     *
+     * @return array of restaurants
+     */
+    Restaurant[] getRestaurants();
+
+    /**
+     * Gets the no-fly zones, already compiled
+     *
+     * @return array of no-fly zones
+     */
+    NoFlyZones[] getNoFlyZones();
+}
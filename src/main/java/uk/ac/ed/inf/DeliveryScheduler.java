@@ -0,0 +1,46 @@
+package uk.ac.ed.inf;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A strategy choosing which valid orders the drone delivers on one battery charge and in what sequence. Every
+ * delivery is a round trip to the order's restaurant, costing as many moves as the round trip path has.
+ */
+public interface DeliveryScheduler {
+    /**
+     * An order scheduled for delivery together with the restaurant it is collected from
+     *
+     * @param restaurant restaurant the order is collected from
+     * @param order      delivered order
+     */
+    record Delivery(Restaurant restaurant, Order order) {
+    }
+
+    /**
+     * Chooses the orders to deliver. The input lists are not changed.
+     *
+     * @param orders                valid orders grouped by the restaurant that can fulfill them
+     * @param restaurantsByDistance restaurants and the number of moves of their round trip, closest first
+     * @param batteryCharge         number of moves the drone can make
+     * @return deliveries in the sequence they are flown
+     */
+    List<Delivery> schedule(HashMap<Restaurant, ArrayList<Order>> orders,
+                            ArrayList<Map.Entry<Restaurant, Integer>> restaurantsByDistance, int batteryCharge);
+
+    /**
+     * Gets a scheduler from its command line name
+     *
+     * @param name name of the scheduler, "knapsack" or "closest"
+     * @return delivery scheduler with that name
+     */
+    static DeliveryScheduler fromName(String name) {
+        return switch (name.toLowerCase()) {
+            case "knapsack" -> new KnapsackScheduler();
+            case "closest", "closest-first" -> new ClosestFirstScheduler();
+            default -> throw new IllegalArgumentException("Unknown delivery scheduler: " + name);
+        };
+    }
+}
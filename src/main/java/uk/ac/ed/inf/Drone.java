@@ -2,35 +2,43 @@ package uk.ac.ed.inf;
 
 import java.time.Clock;
 import java.time.Duration;
-import java.io.FileWriter;
-import java.io.PrintWriter;
 import java.util.*;
-import com.mapbox.geojson.LineString;
-import com.mapbox.geojson.Feature;
-import com.mapbox.geojson.Point;
-import com.mapbox.geojson.FeatureCollection;
-import com.google.gson.JsonObject;
 
 /**
- * A class that controls drone behaviour.
+ * A class that controls drone behaviour. A drone only keeps the clock its ticks are measured with; the battery
+ * charge and everything else a delivery run changes is local to the run, so one drone can perform several
+ * deliveries at the same time.
  */
 public class Drone {
+    /**
+     * Number of moves the drone can make on a full battery
+     */
+    public static final int BATTERY_CHARGE = 2000;
+
     private final long startTime;
     private final Clock clock;
-    private int batteryCharge;
 
     /**
-     * Constructor of the drone class which initialises variables for battery charge and measuring time.
+     * Constructor of the drone class which starts measuring time with the system clock.
      */
     public Drone() {
-        this.clock = Clock.tick(Clock.systemDefaultZone(), Duration.ofMillis(1));
+        this(Clock.tick(Clock.systemDefaultZone(), Duration.ofMillis(1)));
+    }
+
+    /**
+     * Constructor of the drone class which measures time with the given clock, e.g. a fixed clock for
+     * reproducible ticks.
+     *
+     * @param clock clock ticks are measured with
+     */
+    public Drone(Clock clock) {
+        this.clock = clock;
         this.startTime = clock.millis();
-        this.batteryCharge = 2000;
     }
 
 
     /**
-     * Enum that holds compass directions and their angles in degrees
+     * Enum that holds compass directions, their angles in degrees and the step a move in that direction makes
      */
     public enum Compass {
         E(0),
@@ -50,50 +58,88 @@ public class Drone {
         SE(315),
         ESE(337.5);
         public final double angle;
+        public final double lngStep;
+        public final double latStep;
 
         Compass(double angle) {
             this.angle = angle;
+            this.lngStep = Math.cos(Math.toRadians(angle)) * MoveKernel.STEP_LENGTH;
+            this.latStep = Math.sin(Math.toRadians(angle)) * MoveKernel.STEP_LENGTH;
         }
     }
 
     /**
-     * Performs delivery of orders. Orders are delivered based on how close they are to the starting point: the
-     * closest ones get delivered first. Method also takes into account battery charge, which is 2000 at the start.
+     * Performs delivery of orders, choosing them with the default {@link KnapsackScheduler}. Method also takes into
+     * account battery charge, which is {@value #BATTERY_CHARGE} at the start.
      *
-     * @param movesAsJsonObjects          array of drone moves as json objects
-     * @param jsonPoints          array of points depicting drone position
+     * @param flightLog           log the drone moves are recorded in as they are flown
      * @param restaurantPaths        paths to and from each restaurant
      * @param orders       Hashmap of restaurants which can fulfill certain orders
      * @param restaurantsByDistance sorted array of restaurants, where the first entry is closest to starting point
      * @return list of completed orders
      */
-    public ArrayList<Order> performDelivery(ArrayList<JsonObject> movesAsJsonObjects, ArrayList<Point> jsonPoints,
+    public ArrayList<Order> performDelivery(FlightLog flightLog,
     HashMap<Restaurant, ArrayList<DronePath>> restaurantPaths, HashMap<Restaurant, ArrayList<Order>> orders,
     ArrayList<Map.Entry<Restaurant, Integer>> restaurantsByDistance) {
+        return performDelivery(flightLog, restaurantPaths, orders, restaurantsByDistance,
+                new KnapsackScheduler());
+    }
+
+    /**
+     * Performs delivery of the orders chosen by a scheduler, in the sequence it chose them. The paths and lists of
+     * valid orders are only read.
+     *
+     * @param flightLog           log the drone moves are recorded in as they are flown
+     * @param restaurantPaths        paths to and from each restaurant
+     * @param orders       Hashmap of restaurants which can fulfill certain orders
+     * @param restaurantsByDistance sorted array of restaurants, where the first entry is closest to starting point
+     * @param scheduler           scheduler choosing the orders delivered on the battery charge
+     * @return list of completed orders
+     */
+    public ArrayList<Order> performDelivery(FlightLog flightLog,
+    HashMap<Restaurant, ArrayList<DronePath>> restaurantPaths, HashMap<Restaurant, ArrayList<Order>> orders,
+    ArrayList<Map.Entry<Restaurant, Integer>> restaurantsByDistance, DeliveryScheduler scheduler) {
         ArrayList<Order> completedOrders = new ArrayList<>();
         Integer previousTick = null;
-        for (Map.Entry<Restaurant, Integer> restaurant : restaurantsByDistance) {
-            ArrayList<Order> currentOrders = orders.get(restaurant.getKey());
-            ArrayList<DronePath> currentPath = restaurantPaths.get(restaurant.getKey());
-            while (currentOrders.size() > 0 && this.batteryCharge >= restaurant.getValue()) {
-                Order order = currentOrders.get(0);
-                currentOrders.remove(0);
-                for (DronePath droneMovement : currentPath) {
-                    DronePath.orderNumber = order.orderNo;
-                    DronePath.ticksSinceStartOfCalculation = this.computeTicks(previousTick);
-                    previousTick = this.computeTicks(previousTick);
-                    movesAsJsonObjects.add(droneMovement.convertToJson());
-                    jsonPoints.add(Point.fromLngLat(droneMovement.startLongitude,
-                            droneMovement.startLatitude));
-                }
-                this.batteryCharge = this.batteryCharge - currentPath.size();
-                if (this.batteryCharge < restaurant.getValue()) {
-                    int pathValue = currentPath.size() - 1;
-                    jsonPoints.add(Point.fromLngLat(currentPath.get(pathValue).startLongitude,
-                            currentPath.get(pathValue).startLatitude));
-                }
-                completedOrders.add(order);
+        for (DeliveryScheduler.Delivery delivery : scheduler.schedule(orders, restaurantsByDistance,
+                BATTERY_CHARGE)) {
+            Order order = delivery.order();
+            ArrayList<DronePath> currentPath = restaurantPaths.get(delivery.restaurant());
+            int orderIndex = flightLog.addOrder(order.orderNo);
+            for (DronePath droneMovement : currentPath) {
+                previousTick = this.computeTicks(previousTick);
+                flightLog.addMove(orderIndex, droneMovement, previousTick);
             }
+            completedOrders.add(order);
+        }
+        return completedOrders;
+    }
+
+    /**
+     * Performs delivery of orders claimed from a dispatcher shared with other drones, until no remaining order
+     * fits in the battery charge of this run
+     *
+     * @param flightLog       log the drone moves are recorded in as they are flown
+     * @param restaurantPaths paths to and from each restaurant
+     * @param dispatcher      dispatcher handing out the valid orders
+     * @return list of completed orders
+     */
+    public ArrayList<Order> performDelivery(FlightLog flightLog,
+    HashMap<Restaurant, ArrayList<DronePath>> restaurantPaths, OrderDispatcher dispatcher) {
+        ArrayList<Order> completedOrders = new ArrayList<>();
+        Integer previousTick = null;
+        int batteryCharge = BATTERY_CHARGE;
+        DeliveryScheduler.Delivery delivery;
+        while ((delivery = dispatcher.claim(batteryCharge)) != null) {
+            Order order = delivery.order();
+            ArrayList<DronePath> currentPath = restaurantPaths.get(delivery.restaurant());
+            int orderIndex = flightLog.addOrder(order.orderNo);
+            for (DronePath droneMovement : currentPath) {
+                previousTick = this.computeTicks(previousTick);
+                flightLog.addMove(orderIndex, droneMovement, previousTick);
+            }
+            batteryCharge = batteryCharge - currentPath.size();
+            completedOrders.add(order);
         }
         return completedOrders;
     }
@@ -101,6 +147,7 @@ public class Drone {
     /**
      * Method for keeping track of time
      *
+     * @param previousTick tick of the previous move of the run, or null for the first move
      * @return current or previous tick
      */
     private int computeTicks(Integer previousTick) {
@@ -113,47 +160,41 @@ public class Drone {
     }
 
     /**
-     * Computes outcome of orders and stores them in a JsonObject list
+     * Produces hashmap of valid orders and a restaurant that can fulfill the order
      *
-     * @param deliveredOrders array of delivered orders
-     * @param restaurants     array of restaurants
-     * @param orders          array containing the orders
-     * @return JsonObject list of order outcomes
+     * @param restaurants array of restaurants
+     * @param orders order array
+     * @return Hashmap of a valid order and a restaurant
      */
-    public static List<JsonObject> generateOrderOutcomes(ArrayList<Order> deliveredOrders,
-                                                         Restaurant[] restaurants, Order[] orders) {
-        List<JsonObject> jsonOrders = new ArrayList<>();
-        for (Order order : orders) {
-            if (!deliveredOrders.contains(order)) {
-                jsonOrders.add(Order.getOrderJson(0, order.orderNo, order.isOrderValid(restaurants)));
-            } else {
-                jsonOrders.add(Order.getOrderJson(order.priceTotalInPence, order.orderNo, OrderOutcome.Delivered));
-            }
-        }
-        return jsonOrders;
+    public static HashMap<Restaurant, ArrayList<Order>> getValidOrdersByDistance(Restaurant[] restaurants,
+                                                                                 Order[] orders) throws InvalidPizzaCombinationException {
+        return getValidOrdersByDistance(restaurants, Arrays.asList(orders));
     }
 
     /**
-     * Produces hashmap of valid orders and a restaurant that can fulfill the order
+     * Produces hashmap of valid orders and a restaurant that can fulfill the order. Orders are validated in the
+     * order they are produced, so they can come straight from an {@link OrderReader}. The menus are indexed for
+     * this call only.
      *
      * @param restaurants array of restaurants
-     * @param orders order array
+     * @param orders orders to validate
      * @return Hashmap of a valid order and a restaurant
      */
     public static HashMap<Restaurant, ArrayList<Order>> getValidOrdersByDistance(Restaurant[] restaurants,
-                                                                                 Order[] orders) throws InvalidPizzaCombinationException {
-        HashMap<Restaurant, ArrayList<Order>> sortedOrders = new HashMap<>();
-        for (Order order : orders) {
-            if (order.isOrderValid(restaurants) == OrderOutcome.ValidButNotDelivered) {
-                try {
-                    Restaurant deliveryRestaurant = order.findRestaurant(restaurants, order.orderItems);
-                    sortedOrders.computeIfAbsent(deliveryRestaurant, k -> new ArrayList<>()).add(order);
-                } catch (InvalidPizzaCombinationException e) {
-                    throw new InvalidPizzaCombinationException("Invalid pizza combination");
-                }
-            }
-        }
-        return sortedOrders;
+                                                                                 Iterable<Order> orders) throws InvalidPizzaCombinationException {
+        return getValidOrdersByDistance(new MenuIndex(restaurants), orders);
+    }
+
+    /**
+     * Produces hashmap of valid orders and a restaurant that can fulfill the order, using a prebuilt menu index
+     *
+     * @param restaurants index of the restaurant menus
+     * @param orders orders to validate
+     * @return Hashmap of a valid order and a restaurant
+     */
+    public static HashMap<Restaurant, ArrayList<Order>> getValidOrdersByDistance(MenuIndex restaurants,
+                                                                                 Iterable<Order> orders) throws InvalidPizzaCombinationException {
+        return ValidatedOrders.validate(restaurants, orders).getValidOrdersByRestaurant();
     }
 
     /**
@@ -168,76 +209,126 @@ public class Drone {
      */
     public static HashMap<Restaurant, ArrayList<DronePath>> GreedyAlgorithm(Restaurant[] restaurants,
                                                             LngLat beginningPosition, NoFlyZones[] noFlyZones) {
+        return planRestaurantPaths(PathfindingAlgorithm.GREEDY, restaurants, beginningPosition, noFlyZones);
+    }
+
+    /**
+     * Method for computing round trip flight paths to restaurants from starting position with the chosen
+     * pathfinding algorithm.
+     *
+     * @param algorithm       pathfinding algorithm used for the path to each restaurant
+     * @param restaurants     array of restaurants
+     * @param beginningPosition The drone's starting position
+     * @param noFlyZones      array of no-fly zones
+     * @return HashMap of restaurant and the computed round trip path to it
+     */
+    public static HashMap<Restaurant, ArrayList<DronePath>> planRestaurantPaths(PathfindingAlgorithm algorithm,
+            Restaurant[] restaurants, LngLat beginningPosition, NoFlyZones[] noFlyZones) {
+        return planRestaurantPaths(algorithm, restaurants, beginningPosition, new NoFlyZoneIndex(noFlyZones));
+    }
+
+    /**
+     * Method for computing round trip flight paths to restaurants from starting position with the chosen
+     * pathfinding algorithm, using an index of the no-fly zones built when they were loaded. Restaurants no
+     * path was found to are left out.
+     *
+     * @param algorithm       pathfinding algorithm used for the path to each restaurant
+     * @param restaurants     array of restaurants
+     * @param beginningPosition The drone's starting position
+     * @param noFlyZones      index of no-fly zones
+     * @return HashMap of restaurant and the computed round trip path to it
+     */
+    public static HashMap<Restaurant, ArrayList<DronePath>> planRestaurantPaths(PathfindingAlgorithm algorithm,
+            Restaurant[] restaurants, LngLat beginningPosition, NoFlyZoneIndex noFlyZones) {
         HashMap<Restaurant, ArrayList<DronePath>> restaurantPaths = new HashMap<>();
-        Compass[] directions = Compass.values();
         for (Restaurant restaurant : restaurants) {
-            LngLat position = beginningPosition;
-            LngLat lastPosition;
-            ArrayList<DronePath> pathsToRestaurant = new ArrayList<>();
-            ArrayList<DronePath> pathReversed = new ArrayList<>();
-            while (!position.closeTo(new LngLat(restaurant.longitude, restaurant.latitude))) {
-                double minDistanceToRestaurant = 0.0;
-                Compass bestDirection = null;
-                for (Compass direction : directions) {
-                    var nextPosition = position.nextPosition(direction.angle);
-                    double nextDistanceToRestaurant = nextPosition.distanceTo(new LngLat(restaurant.longitude, restaurant.latitude));
-                    if ((minDistanceToRestaurant == 0.0 || nextDistanceToRestaurant < minDistanceToRestaurant)
-                            && !nextPosition.isDroneInNoFlyZone(noFlyZones)
-                            && !position.isDronePassingNoFlyZone(noFlyZones, nextPosition)
-                            ) {
-                        minDistanceToRestaurant = nextDistanceToRestaurant;
-                        bestDirection = direction;
-                    }
-                }
-                assert bestDirection != null;
-                DronePath path = new DronePath(null, bestDirection.angle,
-                        position, position.nextPosition(bestDirection.angle), null);
-                position = position.nextPosition(bestDirection.angle);
-                pathsToRestaurant.add(path);
-            }
-            lastPosition = new LngLat(pathsToRestaurant.get(pathsToRestaurant.size() - 1).endLongitude,
-                    pathsToRestaurant.get(pathsToRestaurant.size() - 1).endLatitude);
-            beginningPosition = new LngLat(pathsToRestaurant.get(0).startLongitude,
-                    pathsToRestaurant.get(0).startLatitude);
-            ArrayList<DronePath> fullPath = new ArrayList<>(pathsToRestaurant);
-            fullPath.add(new DronePath(null, null, lastPosition, lastPosition,
-                    null));
-            int i;
-            for (i = pathsToRestaurant.size() - 1; i > -1; i--) {
-                pathReversed.add(pathsToRestaurant.get(i).getReversedDronePath());
+            ArrayList<DronePath> pathsToRestaurant = algorithm.findPath(beginningPosition,
+                    new LngLat(restaurant.longitude, restaurant.latitude), noFlyZones);
+            if (pathsToRestaurant == null) {
+                continue;
             }
-            fullPath.addAll(pathReversed);
-            fullPath.add(new DronePath(null, null,
-                    beginningPosition, beginningPosition, null));
-            restaurantPaths.put(restaurant, fullPath);
+            restaurantPaths.put(restaurant, buildRoundTrip(pathsToRestaurant, beginningPosition));
         }
         return restaurantPaths;
     }
 
     /**
-     * Method for writing drone flight paths to a json file
+     * Computes a path to the target by always flying in the direction that gets the drone closest to it, while
+     * avoiding ending up in a no-fly zone or crossing one.
      *
-     * @param pathSegments array of drone moves
-     * @param date order date
+     * @param beginningPosition The drone's starting position
+     * @param target          position the drone should end up close to
+     * @param noFlyZones      index of no-fly zones
+     * @return list of moves to the target, or null if every move is blocked by a no-fly zone
      */
-    public static void writeDroneFlightPathToFile(ArrayList<JsonObject> pathSegments, String date) {
-        try (PrintWriter out = new PrintWriter(new FileWriter("flightpath-" + date + ".json"))) {
-            out.write(pathSegments.toString());
-        } catch (Exception e) {
-            e.printStackTrace();
+    static ArrayList<DronePath> findGreedyPath(LngLat beginningPosition, LngLat target, NoFlyZoneIndex noFlyZones) {
+        return findGreedyPath(beginningPosition, target, noFlyZones, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Computes a path to the target with the greedy approach, giving up after a number of moves
+     *
+     * @param beginningPosition The drone's starting position
+     * @param target          position the drone should end up close to
+     * @param noFlyZones      index of no-fly zones
+     * @param maxMoves        number of moves after which the search gives up
+     * @return list of moves to the target, or null if the target was not reached within the number of moves or
+     * every move is blocked by a no-fly zone
+     */
+    static ArrayList<DronePath> findGreedyPath(LngLat beginningPosition, LngLat target, NoFlyZoneIndex noFlyZones,
+                                               int maxMoves) {
+        double lng = beginningPosition.lng();
+        double lat = beginningPosition.lat();
+        double targetLng = target.lng();
+        double targetLat = target.lat();
+        ArrayList<DronePath> pathsToRestaurant = new ArrayList<>();
+        while (!MoveKernel.closeTo(lng, lat, targetLng, targetLat)) {
+            int bestDirection = MoveKernel.bestGreedyDirection(lng, lat, targetLng, targetLat, noFlyZones);
+            if (bestDirection < 0 || pathsToRestaurant.size() >= maxMoves) {
+                return null;
+            }
+            Compass direction = MoveKernel.direction(bestDirection);
+            double nextLng = lng + direction.lngStep;
+            double nextLat = lat + direction.latStep;
+            pathsToRestaurant.add(new DronePath(direction.angle, lng, lat, nextLng, nextLat));
+            lng = nextLng;
+            lat = nextLat;
         }
+        return pathsToRestaurant;
     }
 
     /**
-     * Method for writing drone positions during flight to a geojson file "
+     * Turns a path to a restaurant into a round trip: the path there, a hover move at the restaurant, the path
+     * back and a hover move at the starting position.
      *
-     * @param coordinates array of drone positions
+     * @param pathsToRestaurant list of moves from the starting position to the restaurant
+     * @param beginningPosition The drone's starting position
+     * @return list of moves for the whole round trip
+     */
+    static ArrayList<DronePath> buildRoundTrip(ArrayList<DronePath> pathsToRestaurant, LngLat beginningPosition) {
+        LngLat lastPosition = beginningPosition;
+        if (!pathsToRestaurant.isEmpty()) {
+            DronePath lastMove = pathsToRestaurant.get(pathsToRestaurant.size() - 1);
+            lastPosition = new LngLat(lastMove.endLongitude, lastMove.endLatitude);
+        }
+        ArrayList<DronePath> fullPath = new ArrayList<>(pathsToRestaurant);
+        fullPath.add(new DronePath(null, lastPosition, lastPosition));
+        for (int i = pathsToRestaurant.size() - 1; i > -1; i--) {
+            fullPath.add(pathsToRestaurant.get(i).getReversedDronePath());
+        }
+        fullPath.add(new DronePath(null, beginningPosition, beginningPosition));
+        return fullPath;
+    }
+
+    /**
+     * Method for writing drone positions during flight to a geojson file
+     *
+     * @param flightLog log of the drone moves
      * @param date order date
      */
-    public static void writeDroneFlightPathToFileGeoJson(ArrayList<Point> coordinates, String date) {
-        try (PrintWriter out = new PrintWriter(new FileWriter("drone-" + date + ".geojson"))) {
-            Feature feature = Feature.fromGeometry(LineString.fromLngLats(coordinates));
-            out.write(FeatureCollection.fromFeature(feature).toJson());
+    public static void writeDroneFlightPathToFileGeoJson(FlightLog flightLog, String date) {
+        try {
+            GeoJsonWriter.write(flightLog, FlightPathWriter.openFile("drone-" + date + ".geojson"));
         } catch (Exception e) {
             e.printStackTrace();
         }
@@ -245,21 +336,24 @@ public class Drone {
     public ArrayList<Order> appTest(String url, String date, Order[] orders) throws InvalidPizzaCombinationException {
         Restaurant[] restaurants = Restaurant.getRestaurantsFromRestServer(url);
         assert orders != null;
-        HashMap<Restaurant, ArrayList<Order>> restaurantOrders = Drone.getValidOrdersByDistance(restaurants, orders);
+        ValidatedOrders validatedOrders = ValidatedOrders.validate(new MenuIndex(restaurants), Arrays.asList(orders));
         LngLat startCoordinates = new LngLat(-3.186874, 55.944494);
         NoFlyZones[] noFlyZones = CentralArea.getNoFlyZones(url);
         HashMap<Restaurant, ArrayList<DronePath>> restaurantPaths = Drone.GreedyAlgorithm(restaurants,
                 startCoordinates, noFlyZones);
         ArrayList<Map.Entry<Restaurant, Integer>> restaurantsByDistance = Restaurant.getRestaurantsByDistance
                 (restaurantPaths, restaurants);
-        ArrayList<Point> jsonPoints = new ArrayList<>();
-        ArrayList<JsonObject> movesAsJsonObjects = new ArrayList<>();
-        ArrayList<Order> completedOrders = new Drone().performDelivery(movesAsJsonObjects, jsonPoints, restaurantPaths,
-                restaurantOrders, restaurantsByDistance);
-        List<JsonObject> jsonOrders = Drone.generateOrderOutcomes(completedOrders, restaurants, orders);
-        Drone.writeDroneFlightPathToFile(movesAsJsonObjects, date);
-        Drone.writeDroneFlightPathToFileGeoJson(jsonPoints, date);
-        Order.writeOrderOutcomes(jsonOrders, date);
+        FlightLog flightLog = new FlightLog();
+        ArrayList<Order> completedOrders = new Drone().performDelivery(flightLog, restaurantPaths,
+                validatedOrders.getValidOrdersByRestaurant(), restaurantsByDistance);
+        for (Order order : completedOrders) {
+            validatedOrders.markDelivered(order);
+        }
+        try (FlightPathWriter flightPath = new FlightPathWriter(date)) {
+            flightPath.writeLog(flightLog);
+        }
+        Drone.writeDroneFlightPathToFileGeoJson(flightLog, date);
+        Order.writeOrderOutcomes(validatedOrders, date);
         return completedOrders;
     }
 }
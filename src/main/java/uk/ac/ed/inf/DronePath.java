@@ -1,14 +1,12 @@
 package uk.ac.ed.inf;
 
-import com.google.gson.JsonObject;
-
 /**
- * A class that contains methods for drone pathing
+ * A class that contains methods for drone pathing. A drone path is one immutable move between two positions, so
+ * the same planned moves can be shared by every delivery and every thread; the order a move is flown for and
+ * when it is flown are recorded separately in the {@link FlightLog}.
  */
 public class DronePath {
-    public static String orderNumber;
     private final Double angle;
-    public static Integer ticksSinceStartOfCalculation;
     public final double startLongitude;
     public final double startLatitude;
     public final double endLongitude;
@@ -18,49 +16,48 @@ public class DronePath {
     /**
      * Constructs a drone path segment
      *
-     * @param orderNumber Order number
-     * @param angle angle that the drone will fly at
+     * @param angle angle that the drone will fly at, or null if it hovers
      * @param startPosition starting position of path segment
      * @param endPosition ending position of path segment
-     * @param ticksSinceStartOfCalculation Integer that keeps track of the number of ticks that have
-     *                                     passed since start of calculation
      */
-    public DronePath(String orderNumber, Double angle, LngLat startPosition, LngLat endPosition,
-                     Integer ticksSinceStartOfCalculation) {
-        DronePath.orderNumber = orderNumber;
-        DronePath.ticksSinceStartOfCalculation = ticksSinceStartOfCalculation;
+    public DronePath(Double angle, LngLat startPosition, LngLat endPosition) {
+        this(angle, startPosition.lng(), startPosition.lat(), endPosition.lng(), endPosition.lat());
+    }
+
+    /**
+     * Constructs a drone path segment from raw coordinates
+     *
+     * @param angle angle that the drone will fly at, or null if it hovers
+     * @param startLongitude longitude the segment starts at
+     * @param startLatitude latitude the segment starts at
+     * @param endLongitude longitude the segment ends at
+     * @param endLatitude latitude the segment ends at
+     */
+    public DronePath(Double angle, double startLongitude, double startLatitude, double endLongitude,
+                     double endLatitude) {
         this.angle = angle;
-        this.startLongitude = startPosition.lng();
-        this.startLatitude = startPosition.lat();
-        this.endLongitude = endPosition.lng();
-        this.endLatitude = endPosition.lat();
+        this.startLongitude = startLongitude;
+        this.startLatitude = startLatitude;
+        this.endLongitude = endLongitude;
+        this.endLatitude = endLatitude;
     }
 
     /**
-     * Creates a reversed drone path for coming back from the restaurant
+     * Gets the angle the drone flies at during this path segment
      *
-     * @return reversed drone path
+     * @return angle in degrees, or null if the drone hovers
      */
-    public DronePath getReversedDronePath() {
-        return new DronePath(orderNumber, (180.0 + this.angle) % 360.0,
-                new LngLat(this.endLongitude, this.endLatitude), new LngLat(this.startLongitude, this.startLatitude),
-                ticksSinceStartOfCalculation);
+    public Double getAngle() {
+        return this.angle;
     }
 
     /**
-     * Method for creating a JsonObject for an output file
+     * Creates a reversed drone path for coming back from the restaurant
      *
-     * @return Drone path JsonObject
+     * @return reversed drone path
      */
-    public JsonObject convertToJson() {
-        JsonObject json = new JsonObject();
-        json.addProperty("orderNo", orderNumber);
-        json.addProperty("fromLongitude", this.startLongitude);
-        json.addProperty("fromLatitude", this.startLatitude);
-        json.addProperty("angle", this.angle);
-        json.addProperty("toLongitude", this.endLongitude);
-        json.addProperty("toLatitude", this.endLatitude);
-        json.addProperty("ticksSinceStartOfCalculation", ticksSinceStartOfCalculation);
-        return json;
+    public DronePath getReversedDronePath() {
+        return new DronePath((180.0 + this.angle) % 360.0,
+                new LngLat(this.endLongitude, this.endLatitude), new LngLat(this.startLongitude, this.startLatitude));
     }
 }
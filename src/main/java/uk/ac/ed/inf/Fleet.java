@@ -0,0 +1,75 @@
+package uk.ac.ed.inf;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * A fleet of drones delivering the orders of a day together. Every drone has its own battery and clock and flies
+ * on its own fork-join task, claiming orders from a shared {@link OrderDispatcher} until none fits in its charge.
+ */
+public class Fleet {
+    /**
+     * The moves one drone of the fleet flew and the orders it delivered
+     *
+     * @param flightLog       log of the drone moves
+     * @param completedOrders orders the drone delivered
+     */
+    public record DroneRun(FlightLog flightLog, List<Order> completedOrders) {
+    }
+
+    private final int size;
+
+    /**
+     * Constructs a fleet
+     *
+     * @param size number of drones
+     */
+    public Fleet(int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("A fleet needs at least 1 drone");
+        }
+        this.size = size;
+    }
+
+    /**
+     * Gets the number of drones
+     *
+     * @return number of drones
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Lets every drone deliver orders until no order fits in its charge. Delivered orders are marked as delivered
+     * as soon as they are completed.
+     *
+     * @param restaurantPaths paths to and from each restaurant
+     * @param dispatcher      dispatcher of the valid orders
+     * @param validatedOrders outcomes of the orders of the day
+     * @return run of every drone, in the order of the drones
+     */
+    public List<DroneRun> performDelivery(HashMap<Restaurant, ArrayList<DronePath>> restaurantPaths,
+                                          OrderDispatcher dispatcher, ValidatedOrders validatedOrders) {
+        List<ForkJoinTask<DroneRun>> drones = new ArrayList<>();
+        for (int i = 0; i < this.size; i++) {
+            drones.add(ForkJoinTask.adapt(() -> {
+                FlightLog flightLog = new FlightLog();
+                ArrayList<Order> completedOrders = new Drone().performDelivery(flightLog, restaurantPaths,
+                        dispatcher);
+                for (Order order : completedOrders) {
+                    validatedOrders.markDelivered(order);
+                }
+                return new DroneRun(flightLog, completedOrders);
+            }));
+        }
+        ForkJoinTask.invokeAll(drones);
+        List<DroneRun> runs = new ArrayList<>();
+        for (ForkJoinTask<DroneRun> drone : drones) {
+            runs.add(drone.join());
+        }
+        return runs;
+    }
+}
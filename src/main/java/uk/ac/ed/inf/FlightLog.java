@@ -0,0 +1,164 @@
+package uk.ac.ed.inf;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A compact log of the moves a drone flies in a day. Moves are kept in primitive columns that grow in chunks of
+ * fixed size, so logging a move allocates nothing but the occasional new chunk. Order numbers are stored once and
+ * referred to by index; hover moves have a NaN angle.
+ */
+public class FlightLog {
+    private static final int CHUNK_SIZE = 4096;
+
+    private final List<String> orderNumbers = new ArrayList<>();
+    private final Map<String, Integer> orderIndices = new HashMap<>();
+    private final List<double[]> coordinateChunks = new ArrayList<>();
+    private final List<float[]> angleChunks = new ArrayList<>();
+    private final List<int[]> orderChunks = new ArrayList<>();
+    private final List<int[]> tickChunks = new ArrayList<>();
+    private int size;
+
+    /**
+     * Gets the index of an order number, adding it if it is not in the log yet
+     *
+     * @param orderNumber order number
+     * @return index of the order number
+     */
+    public int addOrder(String orderNumber) {
+        return this.orderIndices.computeIfAbsent(orderNumber, k -> {
+            this.orderNumbers.add(k);
+            return this.orderNumbers.size() - 1;
+        });
+    }
+
+    /**
+     * Adds a move to the log
+     *
+     * @param orderIndex index of the order the move belongs to
+     * @param move       drone move
+     * @param ticks      ticks since the start of the calculation
+     */
+    public void addMove(int orderIndex, DronePath move, int ticks) {
+        Double angle = move.getAngle();
+        addMove(orderIndex, move.startLongitude, move.startLatitude, angle == null ? Float.NaN : angle.floatValue(),
+                move.endLongitude, move.endLatitude, ticks);
+    }
+
+    /**
+     * Adds a move to the log
+     *
+     * @param orderIndex    index of the order the move belongs to
+     * @param fromLongitude longitude the move starts at
+     * @param fromLatitude  latitude the move starts at
+     * @param angle         angle the drone flies at, or NaN if it hovers
+     * @param toLongitude   longitude the move ends at
+     * @param toLatitude    latitude the move ends at
+     * @param ticks         ticks since the start of the calculation
+     */
+    public void addMove(int orderIndex, double fromLongitude, double fromLatitude, float angle,
+                        double toLongitude, double toLatitude, int ticks) {
+        int offset = this.size % CHUNK_SIZE;
+        if (offset == 0) {
+            this.coordinateChunks.add(new double[CHUNK_SIZE * 4]);
+            this.angleChunks.add(new float[CHUNK_SIZE]);
+            this.orderChunks.add(new int[CHUNK_SIZE]);
+            this.tickChunks.add(new int[CHUNK_SIZE]);
+        }
+        int chunk = this.size / CHUNK_SIZE;
+        double[] coordinates = this.coordinateChunks.get(chunk);
+        coordinates[offset * 4] = fromLongitude;
+        coordinates[offset * 4 + 1] = fromLatitude;
+        coordinates[offset * 4 + 2] = toLongitude;
+        coordinates[offset * 4 + 3] = toLatitude;
+        this.angleChunks.get(chunk)[offset] = angle;
+        this.orderChunks.get(chunk)[offset] = orderIndex;
+        this.tickChunks.get(chunk)[offset] = ticks;
+        this.size++;
+    }
+
+    /**
+     * Gets the number of moves in the log
+     *
+     * @return number of moves
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Gets the order number of a move
+     *
+     * @param move index of the move
+     * @return order number
+     */
+    public String getOrderNumber(int move) {
+        return this.orderNumbers.get(this.orderChunks.get(move / CHUNK_SIZE)[move % CHUNK_SIZE]);
+    }
+
+    /**
+     * Gets the longitude a move starts at
+     *
+     * @param move index of the move
+     * @return longitude
+     */
+    public double getFromLongitude(int move) {
+        return coordinate(move, 0);
+    }
+
+    /**
+     * Gets the latitude a move starts at
+     *
+     * @param move index of the move
+     * @return latitude
+     */
+    public double getFromLatitude(int move) {
+        return coordinate(move, 1);
+    }
+
+    /**
+     * Gets the longitude a move ends at
+     *
+     * @param move index of the move
+     * @return longitude
+     */
+    public double getToLongitude(int move) {
+        return coordinate(move, 2);
+    }
+
+    /**
+     * Gets the latitude a move ends at
+     *
+     * @param move index of the move
+     * @return latitude
+     */
+    public double getToLatitude(int move) {
+        return coordinate(move, 3);
+    }
+
+    /**
+     * Gets the angle the drone flies at during a move
+     *
+     * @param move index of the move
+     * @return angle in degrees, or NaN if the drone hovers
+     */
+    public float getAngle(int move) {
+        return this.angleChunks.get(move / CHUNK_SIZE)[move % CHUNK_SIZE];
+    }
+
+    /**
+     * Gets the ticks since the start of the calculation at a move
+     *
+     * @param move index of the move
+     * @return ticks
+     */
+    public int getTicks(int move) {
+        return this.tickChunks.get(move / CHUNK_SIZE)[move % CHUNK_SIZE];
+    }
+
+    private double coordinate(int move, int column) {
+        return this.coordinateChunks.get(move / CHUNK_SIZE)[(move % CHUNK_SIZE) * 4 + column];
+    }
+}
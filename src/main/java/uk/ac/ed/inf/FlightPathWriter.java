@@ -0,0 +1,94 @@
+package uk.ac.ed.inf;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/**
+ * A class that writes the moves of a {@link FlightLog} to a flight path json file
+ */
+public class FlightPathWriter implements Closeable {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final JsonGenerator generator;
+
+    /**
+     * Opens the flight path file for a date
+     *
+     * @param date order date
+     */
+    public FlightPathWriter(String date) {
+        this(openFile("flightpath-" + date + ".json"));
+    }
+
+    /**
+     * Constructs a writer that writes the flight path to a stream
+     *
+     * @param out stream the flight path is written to
+     */
+    public FlightPathWriter(OutputStream out) {
+        try {
+            this.generator = Json.FACTORY.createGenerator(out, JsonEncoding.UTF8);
+            this.generator.writeStartArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Opens a buffered stream to a file
+     *
+     * @param fileName name of the file
+     * @return buffered stream to the file
+     */
+    static OutputStream openFile(String fileName) {
+        try {
+            return new BufferedOutputStream(Files.newOutputStream(Path.of(fileName)), BUFFER_SIZE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Writes every move of a flight log
+     *
+     * @param log flight log
+     */
+    public void writeLog(FlightLog log) {
+        try {
+            for (int i = 0; i < log.size(); i++) {
+                this.generator.writeStartObject();
+                this.generator.writeStringField("orderNo", log.getOrderNumber(i));
+                this.generator.writeNumberField("fromLongitude", log.getFromLongitude(i));
+                this.generator.writeNumberField("fromLatitude", log.getFromLatitude(i));
+                float angle = log.getAngle(i);
+                if (Float.isNaN(angle)) {
+                    this.generator.writeNullField("angle");
+                } else {
+                    this.generator.writeNumberField("angle", angle);
+                }
+                this.generator.writeNumberField("toLongitude", log.getToLongitude(i));
+                this.generator.writeNumberField("toLatitude", log.getToLatitude(i));
+                this.generator.writeNumberField("ticksSinceStartOfCalculation", log.getTicks(i));
+                this.generator.writeEndObject();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Ends the json array and closes the file
+     */
+    @Override
+    public void close() {
+        try {
+            this.generator.writeEndArray();
+            this.generator.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package uk.ac.ed.inf;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/**
+ * A class that writes the positions of a {@link FlightLog} as a geojson feature collection holding one line
+ */
+public class GeoJsonWriter {
+
+    private GeoJsonWriter() {
+    }
+
+    /**
+     * Writes the drone positions of a flight log as a line: the starting position of every move followed by the
+     * ending position of the last move
+     *
+     * @param log flight log
+     * @param out stream the geojson is written to, closed afterwards
+     */
+    public static void write(FlightLog log, OutputStream out) {
+        try (JsonGenerator generator = Json.FACTORY.createGenerator(out, JsonEncoding.UTF8)) {
+            generator.writeStartObject();
+            generator.writeStringField("type", "FeatureCollection");
+            generator.writeArrayFieldStart("features");
+            generator.writeStartObject();
+            generator.writeStringField("type", "Feature");
+            generator.writeObjectFieldStart("geometry");
+            generator.writeStringField("type", "LineString");
+            generator.writeArrayFieldStart("coordinates");
+            for (int i = 0; i < log.size(); i++) {
+                writePosition(generator, log.getFromLongitude(i), log.getFromLatitude(i));
+            }
+            if (log.size() > 0) {
+                writePosition(generator, log.getToLongitude(log.size() - 1), log.getToLatitude(log.size() - 1));
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+            generator.writeObjectFieldStart("properties");
+            generator.writeEndObject();
+            generator.writeEndObject();
+            generator.writeEndArray();
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writePosition(JsonGenerator generator, double lng, double lat) throws IOException {
+        generator.writeStartArray();
+        generator.writeNumber(lng);
+        generator.writeNumber(lat);
+        generator.writeEndArray();
+    }
+}
@@ -0,0 +1,32 @@
+package uk.ac.ed.inf;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+/**
+ * The json layer of the application, built on Jackson alone. Reference data is bound with readers that are
+ * configured once, orders are read with the streaming parser of {@link OrderReader}, and every output file is
+ * written field by field with the streaming generator, so no output record goes through an object tree.
+ */
+public final class Json {
+    /**
+     * Mapper behind the readers, for the rare value that has no reader of its own
+     */
+    public static final ObjectMapper MAPPER = new ObjectMapper();
+    /**
+     * Factory of every streaming parser and generator
+     */
+    public static final JsonFactory FACTORY = MAPPER.getFactory();
+    /**
+     * Reader of a json array of restaurants
+     */
+    public static final ObjectReader RESTAURANTS = MAPPER.readerFor(Restaurant[].class);
+    /**
+     * Reader of a json array of no-fly zones
+     */
+    public static final ObjectReader NO_FLY_ZONES = MAPPER.readerFor(NoFlyZones[].class);
+
+    private Json() {
+    }
+}
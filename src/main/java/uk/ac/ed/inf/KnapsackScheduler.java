@@ -0,0 +1,90 @@
+package uk.ac.ed.inf;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A scheduler that packs the battery charge with a 0/1 knapsack over the valid orders. Every order weighs the
+ * length of its restaurant's round trip; the chosen set delivers as many orders as possible and, among those,
+ * collects the most in order totals. Deliveries are flown closest restaurant first. If the table takes longer
+ * than the time limit to fill, the closest-first schedule is used instead.
+ */
+public class KnapsackScheduler implements DeliveryScheduler {
+    /**
+     * Default time limit for filling the table in milliseconds
+     */
+    public static final long DEFAULT_TIME_LIMIT_MILLIS = 200;
+
+    private final long timeLimitNanos;
+
+    /**
+     * Constructs a scheduler with the default time limit
+     */
+    public KnapsackScheduler() {
+        this(DEFAULT_TIME_LIMIT_MILLIS);
+    }
+
+    /**
+     * Constructs a scheduler with a time limit
+     *
+     * @param timeLimitMillis time the table may take to fill before falling back to closest-first, in milliseconds
+     */
+    public KnapsackScheduler(long timeLimitMillis) {
+        this.timeLimitNanos = timeLimitMillis * 1_000_000L;
+    }
+
+    @Override
+    public List<Delivery> schedule(HashMap<Restaurant, ArrayList<Order>> orders,
+                                   ArrayList<Map.Entry<Restaurant, Integer>> restaurantsByDistance,
+                                   int batteryCharge) {
+        long deadline = System.nanoTime() + this.timeLimitNanos;
+        List<Delivery> items = new ArrayList<>();
+        List<Integer> weights = new ArrayList<>();
+        long totalRevenue = 0;
+        for (Map.Entry<Restaurant, Integer> restaurant : restaurantsByDistance) {
+            for (Order order : orders.getOrDefault(restaurant.getKey(), new ArrayList<>())) {
+                if (restaurant.getValue() <= batteryCharge) {
+                    items.add(new Delivery(restaurant.getKey(), order));
+                    weights.add(restaurant.getValue());
+                    totalRevenue = totalRevenue + Math.max(0, order.priceTotalInPence);
+                }
+            }
+        }
+        // one more order always beats any difference in revenue
+        long orderScore = totalRevenue + 1;
+        long[] best = new long[batteryCharge + 1];
+        boolean[][] taken = new boolean[items.size()][];
+        for (int i = 0; i < items.size(); i++) {
+            if (System.nanoTime() > deadline) {
+                return new ClosestFirstScheduler().schedule(orders, restaurantsByDistance, batteryCharge);
+            }
+            int weight = weights.get(i);
+            long score = orderScore + Math.max(0, items.get(i).order().priceTotalInPence);
+            taken[i] = new boolean[batteryCharge + 1];
+            for (int charge = batteryCharge; charge >= weight; charge--) {
+                long withItem = best[charge - weight] + score;
+                if (withItem > best[charge]) {
+                    best[charge] = withItem;
+                    taken[i][charge] = true;
+                }
+            }
+        }
+        boolean[] chosen = new boolean[items.size()];
+        int charge = batteryCharge;
+        for (int i = items.size() - 1; i >= 0; i--) {
+            if (taken[i][charge]) {
+                chosen[i] = true;
+                charge = charge - weights.get(i);
+            }
+        }
+        List<Delivery> deliveries = new ArrayList<>();
+        for (int i = 0; i < items.size(); i++) {
+            if (chosen[i]) {
+                deliveries.add(items.get(i));
+            }
+        }
+        return deliveries;
+    }
+}
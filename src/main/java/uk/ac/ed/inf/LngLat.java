@@ -1,7 +1,5 @@
 package uk.ac.ed.inf;
 import java.util.Objects;
-import java.awt.geom.Line2D;
-import java.util.List;
 
 /**
  * A record for representing a point
@@ -16,7 +14,7 @@ public record LngLat(double lng, double lat){
      * @return distance between the two LngLat objects
      */
     public double distanceTo(LngLat lnglat){
-        return Math.sqrt(((lnglat.lat-lat)*(lnglat.lat-lat))+((lnglat.lng-lng)*(lnglat.lng-lng)));
+        return MoveKernel.distance(lng, lat, lnglat.lng, lnglat.lat);
     }
 
     /**
@@ -25,7 +23,7 @@ public record LngLat(double lng, double lat){
      * @return boolean value that shows if the LngLat objects are close
      */
     public boolean closeTo(LngLat lnglat){
-        return distanceTo(lnglat) < 0.00015;
+        return MoveKernel.closeTo(lng, lat, lnglat.lng, lnglat.lat);
     }
 
     /** A method that checks if the drone is in a no-fly zone
@@ -34,27 +32,21 @@ public record LngLat(double lng, double lat){
      */
     public boolean isDroneInNoFlyZone(NoFlyZones[] noFlyZones) {
         for (NoFlyZones zone: noFlyZones) {
-            int i, j, isInZone = 0;
-            List<List<Double>> coords = zone.coordinates;
-            for (i = 0, j = coords.size() - 1; i < coords.size(); j = i++) {
-                if ((coords.get(i).get(1) > this.lat) != (coords.get(j).get(1) > this.lat) &&
-                        (this.lng < (coords.get(j).get(0) - coords.get(i).get(0)) * (this.lat - coords.get(i).get(1))
-                                / (coords.get(j).get(1) - coords.get(i).get(1)) + coords.get(i).get(0))) {
-                    if (isInZone == 0){
-                        isInZone = 1;
-                    }
-                    else{
-                        isInZone = 0;
-                    }
-                }
-            }
-            if (isInZone == 1) {
+            if (zone.getCompiled().contains(this.lng, this.lat)) {
                 return true;
             }
         }
         return false;
     }
 
+    /** A method that checks if the drone is in a no-fly zone, using a precomputed index of the zones
+     * @param noFlyZoneIndex index of no-fly zones
+     * @return boolean indicating if drone is in no-fly zone or not
+     */
+    public boolean isDroneInNoFlyZone(NoFlyZoneIndex noFlyZoneIndex) {
+        return noFlyZoneIndex.contains(this.lng, this.lat);
+    }
+
     /** A method that checks if the drone is crossing a no-fly zone
      * @param noFlyZones array of no-fly zones
      * @param nextPosition point representing where the drone will fly next
@@ -62,20 +54,22 @@ public record LngLat(double lng, double lat){
      */
     public boolean isDronePassingNoFlyZone(NoFlyZones[] noFlyZones, LngLat nextPosition) {
         for (NoFlyZones zone: noFlyZones) {
-            List<List<Double>> coords = zone.coordinates;
-            Line2D dronePath = new Line2D.Double(this.lng, this.lat, nextPosition.lng, nextPosition.lat);
-            boolean isIntersecting;
-            for (int i = 0; i < coords.size(); i++) {
-                isIntersecting = dronePath.intersectsLine(coords.get(i).get(0), coords.get(i).get(1),
-                        coords.get((i + 1)%coords.size()).get(0), coords.get((i + 1)%coords.size()).get(1));
-                if (isIntersecting) {
-                    return true;
-                }
+            if (zone.getCompiled().isCrossing(this.lng, this.lat, nextPosition.lng, nextPosition.lat)) {
+                return true;
             }
         }
         return false;
     }
 
+    /** A method that checks if the drone is crossing a no-fly zone, using a precomputed index of the zones
+     * @param noFlyZoneIndex index of no-fly zones
+     * @param nextPosition point representing where the drone will fly next
+     * @return boolean indicating if drone is crossing a no-fly zone or not
+     */
+    public boolean isDronePassingNoFlyZone(NoFlyZoneIndex noFlyZoneIndex, LngLat nextPosition) {
+        return noFlyZoneIndex.isCrossing(this.lng, this.lat, nextPosition.lng, nextPosition.lat);
+    }
+
     /**
      * A method for calculating the next position of a LngLat object given a direction
      * @param degree direction parameter defined in degrees
@@ -85,12 +79,21 @@ public record LngLat(double lng, double lat){
         if (Objects.equals(degree,null)) {
             return new LngLat(lng,lat);
         }
-        double length = 0.00015;
-        double d1 = Math.cos(degree)*length;
-        double d2 = Math.sin(degree)*length;
+        double d1 = Math.cos(Math.toRadians(degree))*MoveKernel.STEP_LENGTH;
+        double d2 = Math.sin(Math.toRadians(degree))*MoveKernel.STEP_LENGTH;
         return new LngLat(lng+d1, lat+d2);
     }
 
+    /**
+     * A method for calculating the next position of a LngLat object given a compass direction, using the
+     * precomputed step of the direction
+     * @param direction compass direction
+     * @return LngLat object with new location
+     */
+    public LngLat nextPosition(Drone.Compass direction){
+        return new LngLat(lng+direction.lngStep, lat+direction.latStep);
+    }
+
 }
 
 
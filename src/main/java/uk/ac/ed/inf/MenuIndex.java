@@ -0,0 +1,110 @@
+package uk.ac.ed.inf;
+
+import java.util.*;
+
+/**
+ * An immutable index of the restaurant menus, built once from the array of restaurants. It maps every pizza name
+ * to the restaurants supplying it together with their price, and every restaurant to the set of pizzas it sells,
+ * so order checks take time proportional to the number of pizzas in the order.
+ */
+public final class MenuIndex {
+    /**
+     * A restaurant that sells a pizza and the price it sells it for
+     *
+     * @param restaurant   restaurant selling the pizza
+     * @param priceInPence price of the pizza at that restaurant
+     */
+    public record Supplier(Restaurant restaurant, int priceInPence) {
+    }
+
+    private final Restaurant[] restaurants;
+    private final Map<String, List<Supplier>> suppliersByPizza;
+    private final Map<Restaurant, Map<String, Integer>> pricesByRestaurant;
+
+    /**
+     * Builds the index for an array of restaurants
+     *
+     * @param restaurants array of restaurants
+     */
+    public MenuIndex(Restaurant[] restaurants) {
+        this.restaurants = restaurants.clone();
+        Map<String, List<Supplier>> suppliersByPizza = new HashMap<>();
+        Map<Restaurant, Map<String, Integer>> pricesByRestaurant = new HashMap<>();
+        for (Restaurant restaurant : restaurants) {
+            Map<String, Integer> prices = new HashMap<>();
+            for (Menu item : restaurant.getMenu()) {
+                if (prices.putIfAbsent(item.name, item.priceInPence) == null) {
+                    suppliersByPizza.computeIfAbsent(item.name, k -> new ArrayList<>())
+                            .add(new Supplier(restaurant, item.priceInPence));
+                }
+            }
+            pricesByRestaurant.put(restaurant, Collections.unmodifiableMap(prices));
+        }
+        suppliersByPizza.replaceAll((name, suppliers) -> List.copyOf(suppliers));
+        this.suppliersByPizza = Collections.unmodifiableMap(suppliersByPizza);
+        this.pricesByRestaurant = Collections.unmodifiableMap(pricesByRestaurant);
+    }
+
+    /**
+     * Gets the restaurants the index was built from
+     *
+     * @return array of restaurants
+     */
+    public Restaurant[] getRestaurants() {
+        return this.restaurants.clone();
+    }
+
+    /**
+     * Checks if any restaurant sells a pizza
+     *
+     * @param pizza name of the pizza
+     * @return boolean showing if the pizza exists
+     */
+    public boolean isDefined(String pizza) {
+        return this.suppliersByPizza.containsKey(pizza);
+    }
+
+    /**
+     * Gets the pizzas sold by a restaurant
+     *
+     * @param restaurant restaurant
+     * @return set of pizza names
+     */
+    public Set<String> getItems(Restaurant restaurant) {
+        return this.pricesByRestaurant.getOrDefault(restaurant, Map.of()).keySet();
+    }
+
+    /**
+     * Finds the first restaurant, in the order of the restaurant array, that sells every pizza of an order
+     *
+     * @param pizzas names of the ordered pizzas
+     * @return restaurant which can fulfill the order
+     * @throws InvalidPizzaCombinationException if no single restaurant sells all the pizzas
+     */
+    public Restaurant findRestaurant(String... pizzas) throws InvalidPizzaCombinationException {
+        if (pizzas.length > 0) {
+            for (Supplier supplier : this.suppliersByPizza.getOrDefault(pizzas[0], List.of())) {
+                if (getItems(supplier.restaurant).containsAll(Arrays.asList(pizzas))) {
+                    return supplier.restaurant;
+                }
+            }
+        }
+        throw new InvalidPizzaCombinationException("Invalid pizza combination");
+    }
+
+    /**
+     * Gets the price of the pizzas at the restaurant that can fulfill the order
+     *
+     * @param pizzas names of the ordered pizzas
+     * @return sum of the pizza prices in pence
+     * @throws InvalidPizzaCombinationException if no single restaurant sells all the pizzas
+     */
+    public int getPizzaPrice(String... pizzas) throws InvalidPizzaCombinationException {
+        Map<String, Integer> prices = this.pricesByRestaurant.get(findRestaurant(pizzas));
+        int price = 0;
+        for (String pizza : pizzas) {
+            price = price + prices.get(pizza);
+        }
+        return price;
+    }
+}
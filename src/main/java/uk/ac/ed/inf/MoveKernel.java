@@ -0,0 +1,97 @@
+package uk.ac.ed.inf;
+
+/**
+ * Primitive geometry of drone moves. The step vectors of the 16 compass directions are computed once, and
+ * candidate positions, distances and closeness checks are evaluated on raw coordinates, so choosing a move
+ * allocates nothing.
+ */
+public final class MoveKernel {
+    /**
+     * Length of one drone move in degrees
+     */
+    public static final double STEP_LENGTH = 0.00015;
+    /**
+     * Distance under which two positions count as close to each other
+     */
+    public static final double CLOSE_DISTANCE = 0.00015;
+
+    private static final Drone.Compass[] DIRECTIONS = Drone.Compass.values();
+    private static final double[] LNG_STEPS = new double[DIRECTIONS.length];
+    private static final double[] LAT_STEPS = new double[DIRECTIONS.length];
+
+    static {
+        for (int i = 0; i < DIRECTIONS.length; i++) {
+            LNG_STEPS[i] = DIRECTIONS[i].lngStep;
+            LAT_STEPS[i] = DIRECTIONS[i].latStep;
+        }
+    }
+
+    private MoveKernel() {
+    }
+
+    /**
+     * Calculates the distance between two positions
+     *
+     * @param lng1 longitude of the first position
+     * @param lat1 latitude of the first position
+     * @param lng2 longitude of the second position
+     * @param lat2 latitude of the second position
+     * @return distance between the positions
+     */
+    public static double distance(double lng1, double lat1, double lng2, double lat2) {
+        return Math.sqrt(((lat2 - lat1) * (lat2 - lat1)) + ((lng2 - lng1) * (lng2 - lng1)));
+    }
+
+    /**
+     * Checks if two positions are close to each other
+     *
+     * @param lng1 longitude of the first position
+     * @param lat1 latitude of the first position
+     * @param lng2 longitude of the second position
+     * @param lat2 latitude of the second position
+     * @return boolean showing if the positions are close
+     */
+    public static boolean closeTo(double lng1, double lat1, double lng2, double lat2) {
+        return distance(lng1, lat1, lng2, lat2) < CLOSE_DISTANCE;
+    }
+
+    /**
+     * Gets a compass direction by its position in the table
+     *
+     * @param direction index of the direction
+     * @return compass direction
+     */
+    public static Drone.Compass direction(int direction) {
+        return DIRECTIONS[direction];
+    }
+
+    /**
+     * Chooses the move that gets the drone closest to a target without ending in or crossing a no-fly zone. Every
+     * direction counts as a candidate move in the counters of the no-fly zone index.
+     *
+     * @param lng        longitude of the drone
+     * @param lat        latitude of the drone
+     * @param targetLng  longitude of the target
+     * @param targetLat  latitude of the target
+     * @param noFlyZones index of no-fly zones
+     * @return index of the best direction, or -1 if every move is blocked
+     */
+    public static int bestGreedyDirection(double lng, double lat, double targetLng, double targetLat,
+                                          NoFlyZoneIndex noFlyZones) {
+        noFlyZones.countCandidateMoves(LNG_STEPS.length);
+        int bestDirection = -1;
+        double bestDistance = Double.MAX_VALUE;
+        for (int i = 0; i < LNG_STEPS.length; i++) {
+            double nextLng = lng + LNG_STEPS[i];
+            double nextLat = lat + LAT_STEPS[i];
+            double nextDistance = distance(nextLng, nextLat, targetLng, targetLat);
+            if (nextDistance < bestDistance
+                    && !noFlyZones.contains(nextLng, nextLat)
+                    && !noFlyZones.isCrossing(lng, lat, nextLng, nextLat)) {
+                bestDistance = nextDistance;
+                bestDirection = i;
+            }
+        }
+        return bestDirection;
+    }
+}
@@ -0,0 +1,74 @@
+package uk.ac.ed.inf;
+
+import java.util.*;
+
+/**
+ * The difference between two sets of no-fly zones. Zones are matched by name, or by their outline if they have
+ * none. A zone whose outline changed counts with its old outline as removed and with its new outline as added.
+ */
+public class NoFlyZoneChanges {
+    private final List<CompiledNoFlyZone> added = new ArrayList<>();
+    private final List<CompiledNoFlyZone> removed = new ArrayList<>();
+
+    private NoFlyZoneChanges() {
+    }
+
+    /**
+     * Finds the zones added, removed and modified between two sets of no-fly zones
+     *
+     * @param previous zones before the change
+     * @param current  zones after the change
+     * @return changes between the two sets
+     */
+    public static NoFlyZoneChanges between(NoFlyZones[] previous, NoFlyZones[] current) {
+        Map<Object, NoFlyZones> previousZones = new HashMap<>();
+        for (NoFlyZones zone : previous) {
+            previousZones.put(key(zone), zone);
+        }
+        NoFlyZoneChanges changes = new NoFlyZoneChanges();
+        for (NoFlyZones zone : current) {
+            NoFlyZones previousZone = previousZones.remove(key(zone));
+            if (previousZone == null) {
+                changes.added.add(zone.getCompiled());
+            } else if (!Objects.equals(previousZone.coordinates, zone.coordinates)) {
+                changes.removed.add(previousZone.getCompiled());
+                changes.added.add(zone.getCompiled());
+            }
+        }
+        for (NoFlyZones zone : previousZones.values()) {
+            changes.removed.add(zone.getCompiled());
+        }
+        return changes;
+    }
+
+    private static Object key(NoFlyZones zone) {
+        return zone.name != null ? zone.name : zone.coordinates;
+    }
+
+    /**
+     * Gets the outlines that are no-fly zones now but were not before
+     *
+     * @return list of added outlines
+     */
+    public List<CompiledNoFlyZone> getAdded() {
+        return Collections.unmodifiableList(this.added);
+    }
+
+    /**
+     * Gets the outlines that were no-fly zones before but are not now
+     *
+     * @return list of removed outlines
+     */
+    public List<CompiledNoFlyZone> getRemoved() {
+        return Collections.unmodifiableList(this.removed);
+    }
+
+    /**
+     * Checks if the two sets of zones are the same
+     *
+     * @return boolean showing if nothing changed
+     */
+    public boolean isEmpty() {
+        return this.added.isEmpty() && this.removed.isEmpty();
+    }
+}
@@ -0,0 +1,239 @@
+package uk.ac.ed.inf;
+
+import java.awt.geom.Line2D;
+
+/**
+ * A class that indexes no-fly zones for fast checks of drone positions and moves. Every zone gets a bounding box,
+ * and every zone edge is put into the cells of a uniform grid that it overlaps, so a move only has to be tested
+ * against the edges in the cells it touches.
+ */
+public class NoFlyZoneIndex {
+    private static final double MIN_CELL_SIZE = 0.00015;
+    private static final int MAX_CELLS_PER_SIDE = 256;
+
+    private final NoFlyZones[] zones;
+    private final CompiledNoFlyZone[] compiledZones;
+    private final double[] edges;
+    private final int[][] cellEdges;
+    private final double minLng;
+    private final double minLat;
+    private final double maxLng;
+    private final double maxLat;
+    private final double cellSize;
+    private final int columns;
+    private final int rows;
+    private final PlanningCounters counters;
+
+    /**
+     * Builds the index for an array of no-fly zones from their compiled form
+     *
+     * @param noFlyZones array of no-fly zones
+     */
+    public NoFlyZoneIndex(NoFlyZones[] noFlyZones) {
+        this.zones = noFlyZones;
+        this.compiledZones = new CompiledNoFlyZone[noFlyZones.length];
+        int edgeCount = 0;
+        double minLng = Double.POSITIVE_INFINITY;
+        double minLat = Double.POSITIVE_INFINITY;
+        double maxLng = Double.NEGATIVE_INFINITY;
+        double maxLat = Double.NEGATIVE_INFINITY;
+        for (int z = 0; z < noFlyZones.length; z++) {
+            CompiledNoFlyZone zone = noFlyZones[z].getCompiled();
+            this.compiledZones[z] = zone;
+            edgeCount += zone.size();
+            minLng = Math.min(minLng, zone.minLng);
+            minLat = Math.min(minLat, zone.minLat);
+            maxLng = Math.max(maxLng, zone.maxLng);
+            maxLat = Math.max(maxLat, zone.maxLat);
+        }
+        this.minLng = minLng;
+        this.minLat = minLat;
+        this.maxLng = maxLng;
+        this.maxLat = maxLat;
+
+        this.edges = new double[edgeCount * 4];
+        int e = 0;
+        for (CompiledNoFlyZone zone : this.compiledZones) {
+            for (int i = 0; i < zone.size(); i++, e++) {
+                int next = (i + 1) % zone.size();
+                this.edges[e * 4] = zone.lng(i);
+                this.edges[e * 4 + 1] = zone.lat(i);
+                this.edges[e * 4 + 2] = zone.lng(next);
+                this.edges[e * 4 + 3] = zone.lat(next);
+            }
+        }
+
+        double extent = edgeCount == 0 ? 0.0 : Math.max(maxLng - minLng, maxLat - minLat);
+        this.cellSize = Math.max(MIN_CELL_SIZE, extent / MAX_CELLS_PER_SIDE);
+        this.columns = edgeCount == 0 ? 0 : (int) ((maxLng - minLng) / this.cellSize) + 1;
+        this.rows = edgeCount == 0 ? 0 : (int) ((maxLat - minLat) / this.cellSize) + 1;
+        this.cellEdges = buildGrid(edgeCount);
+        this.counters = null;
+    }
+
+    /**
+     * Constructs a view of an index which shares its zones and grid but adds its work to other counters
+     *
+     * @param index    index whose zones and grid are shared
+     * @param counters counters the work is added to, or null to not count it
+     */
+    private NoFlyZoneIndex(NoFlyZoneIndex index, PlanningCounters counters) {
+        this.zones = index.zones;
+        this.compiledZones = index.compiledZones;
+        this.edges = index.edges;
+        this.cellEdges = index.cellEdges;
+        this.minLng = index.minLng;
+        this.minLat = index.minLat;
+        this.maxLng = index.maxLng;
+        this.maxLat = index.maxLat;
+        this.cellSize = index.cellSize;
+        this.columns = index.columns;
+        this.rows = index.rows;
+        this.counters = counters;
+    }
+
+    /**
+     * Puts every edge into the grid cells its bounding box overlaps
+     *
+     * @param edgeCount number of edges
+     * @return array of edge numbers for every cell
+     */
+    private int[][] buildGrid(int edgeCount) {
+        int[] counts = new int[this.columns * this.rows];
+        for (int e = 0; e < edgeCount; e++) {
+            for (int cell : cellsOfEdge(e)) {
+                counts[cell]++;
+            }
+        }
+        int[][] grid = new int[counts.length][];
+        for (int cell = 0; cell < counts.length; cell++) {
+            grid[cell] = new int[counts[cell]];
+            counts[cell] = 0;
+        }
+        for (int e = 0; e < edgeCount; e++) {
+            for (int cell : cellsOfEdge(e)) {
+                grid[cell][counts[cell]++] = e;
+            }
+        }
+        return grid;
+    }
+
+    /**
+     * Gets the grid cells overlapped by the bounding box of an edge
+     *
+     * @param edge number of the edge
+     * @return array of cell numbers
+     */
+    private int[] cellsOfEdge(int edge) {
+        int firstColumn = column(Math.min(this.edges[edge * 4], this.edges[edge * 4 + 2]));
+        int lastColumn = column(Math.max(this.edges[edge * 4], this.edges[edge * 4 + 2]));
+        int firstRow = row(Math.min(this.edges[edge * 4 + 1], this.edges[edge * 4 + 3]));
+        int lastRow = row(Math.max(this.edges[edge * 4 + 1], this.edges[edge * 4 + 3]));
+        int[] cells = new int[(lastColumn - firstColumn + 1) * (lastRow - firstRow + 1)];
+        int i = 0;
+        for (int r = firstRow; r <= lastRow; r++) {
+            for (int c = firstColumn; c <= lastColumn; c++) {
+                cells[i++] = r * this.columns + c;
+            }
+        }
+        return cells;
+    }
+
+    private int column(double lng) {
+        return Math.max(0, Math.min(this.columns - 1, (int) ((lng - this.minLng) / this.cellSize)));
+    }
+
+    private int row(double lat) {
+        return Math.max(0, Math.min(this.rows - 1, (int) ((lat - this.minLat) / this.cellSize)));
+    }
+
+    /**
+     * Gets the zones this index was built from
+     *
+     * @return array of no-fly zones
+     */
+    public NoFlyZones[] getZones() {
+        return this.zones;
+    }
+
+    /**
+     * Gets a view of this index that adds the zone edge tests, and the candidate moves of searches using it, to
+     * planning counters. The view is cheap to create, as the zones and the grid are shared.
+     *
+     * @param counters counters the work is added to, or null to not count it
+     * @return index counting its work in the counters
+     */
+    public NoFlyZoneIndex withCounters(PlanningCounters counters) {
+        return counters == this.counters ? this : new NoFlyZoneIndex(this, counters);
+    }
+
+    /**
+     * Adds candidate moves evaluated by a search using this index to its counters, if it has any
+     *
+     * @param count number of candidate moves
+     */
+    void countCandidateMoves(int count) {
+        if (this.counters != null) {
+            this.counters.addCandidateMoves(count);
+        }
+    }
+
+    /**
+     * Checks if a position is inside any of the no-fly zones. Zones whose bounding box does not contain the
+     * position are skipped without looking at their edges.
+     *
+     * @param lng longitude of the position
+     * @param lat latitude of the position
+     * @return boolean indicating if the position is in a no-fly zone
+     */
+    public boolean contains(double lng, double lat) {
+        for (CompiledNoFlyZone zone : this.compiledZones) {
+            if (zone.contains(lng, lat)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks if a move crosses an edge of any no-fly zone. Only edges in the grid cells covered by the move's
+     * bounding box are tested, and the tests are added to the counters of the index, if it has any.
+     *
+     * @param fromLng longitude where the move starts
+     * @param fromLat latitude where the move starts
+     * @param toLng   longitude where the move ends
+     * @param toLat   latitude where the move ends
+     * @return boolean indicating if the move crosses a no-fly zone
+     */
+    public boolean isCrossing(double fromLng, double fromLat, double toLng, double toLat) {
+        double moveMinLng = Math.min(fromLng, toLng);
+        double moveMaxLng = Math.max(fromLng, toLng);
+        double moveMinLat = Math.min(fromLat, toLat);
+        double moveMaxLat = Math.max(fromLat, toLat);
+        if (this.columns == 0 || moveMaxLng < this.minLng || moveMinLng > this.maxLng
+                || moveMaxLat < this.minLat || moveMinLat > this.maxLat) {
+            return false;
+        }
+        int lastColumn = column(moveMaxLng);
+        int lastRow = row(moveMaxLat);
+        int tests = 0;
+        try {
+            for (int r = row(moveMinLat); r <= lastRow; r++) {
+                for (int c = column(moveMinLng); c <= lastColumn; c++) {
+                    for (int e : this.cellEdges[r * this.columns + c]) {
+                        tests++;
+                        if (Line2D.linesIntersect(fromLng, fromLat, toLng, toLat, this.edges[e * 4],
+                                this.edges[e * 4 + 1], this.edges[e * 4 + 2], this.edges[e * 4 + 3])) {
+                            return true;
+                        }
+                    }
+                }
+            }
+            return false;
+        } finally {
+            if (tests > 0 && this.counters != null) {
+                this.counters.addZoneEdgeTests(tests);
+            }
+        }
+    }
+}
@@ -1,4 +1,5 @@
 package uk.ac.ed.inf;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import java.util.List;
 
@@ -10,4 +11,29 @@ public class NoFlyZones {
     public String name;
     @JsonProperty("coordinates")
     public List<List<Double>> coordinates;
+    @JsonIgnore
+    private CompiledNoFlyZone compiled;
+
+    /**
+     * Compiles the zone coordinates into flat primitive arrays. Called once after the zones are deserialized.
+     *
+     * @return compiled form of the zone
+     */
+    public CompiledNoFlyZone compile() {
+        this.compiled = new CompiledNoFlyZone(this.coordinates);
+        return this.compiled;
+    }
+
+    /**
+     * Gets the compiled form of the zone, compiling it first if that has not been done yet
+     *
+     * @return compiled form of the zone
+     */
+    @JsonIgnore
+    public CompiledNoFlyZone getCompiled() {
+        if (this.compiled == null) {
+            return compile();
+        }
+        return this.compiled;
+    }
 }
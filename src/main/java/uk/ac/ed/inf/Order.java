@@ -1,17 +1,15 @@
 package uk.ac.ed.inf;
 import static uk.ac.ed.inf.OrderOutcome.*;
-import java.io.FileWriter;
-import java.io.PrintWriter;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
 import java.time.DateTimeException;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.Objects;
 import java.util.*;
 import com.fasterxml.jackson.annotation.JsonProperty;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.google.gson.JsonObject;
-import java.net.URL;
 
 /**
  * A class for managing orders
@@ -64,68 +62,83 @@ public class Order{
         this.orderItems = orderItems;
     }
 
-    /** A method for pulling orders from the REST server
+    /** A method for pulling orders from the REST server. Orders are parsed one at a time as the response arrives.
      *
      * @param serverAddress Base address of server where order data is located
      * @param date Date for which orders we want to get
      * @return Null or orders
      */
     public static Order[] getOrdersFromServer(String serverAddress, String date) {
-        try {
-            if (!serverAddress.endsWith("/")) {
-                serverAddress = serverAddress + "/";
-            }
-            String url = serverAddress + "orders";
-            if (date != null) {
-                url += "/" + date;
-            }
-            return new ObjectMapper().readValue(new URL(url), Order[].class);
-        } catch (IOException e) {
+        if (!serverAddress.endsWith("/")) {
+            serverAddress = serverAddress + "/";
+        }
+        String url = serverAddress + "orders";
+        if (date != null) {
+            url += "/" + date;
+        }
+        try (OrderReader reader = OrderReader.fromUrl(url, date)) {
+            return reader.readAll();
+        } catch (IOException | UncheckedIOException e) {
+            e.printStackTrace();
+        }
+        return null;
+    }
+
+    /** A method for reading orders from a local file with the same format as the REST server's orders
+     *
+     * @param file Path of the orders file
+     * @param date Date for which orders we want to get, or null for all orders
+     * @return Null or orders
+     */
+    public static Order[] getOrdersFromFile(Path file, String date) {
+        try (OrderReader reader = OrderReader.fromFile(file, date)) {
+            return reader.readAll();
+        } catch (IOException | UncheckedIOException e) {
             e.printStackTrace();
         }
         return null;
     }
 
     /**
-     * A method for finding the delivery cost of a pizza order
+     * A method for finding the delivery cost of a pizza order. The menus are indexed for this call only.
      * @param restaurantArray An array of participating restaurants
      * @param pizzaStrings Strings of pizza names which for the delivery cost is calculated
      * @return Sum of pizza price and delivery cost
      * @throws InvalidPizzaCombinationException if an invalid pizza combination is detected
      */
     public int getDeliveryCost(Restaurant[] restaurantArray, String... pizzaStrings)throws InvalidPizzaCombinationException{
-        int price = 0;
-        boolean pizzaExists;
-        for (Restaurant restaurant : restaurantArray) {
-            pizzaExists = false;
-            for (String pizza : pizzaStrings) {
-                pizzaExists = false;
-                for (Menu item : restaurant.getMenu()) {
-                    if (Objects.equals(item.name, pizza)) {
-                        price = price + item.priceInPence;
-                        pizzaExists = true;
-                        break;
-                    }
-                }
-                if (!pizzaExists) {
-                    break;
-                }
-            }
-            if (pizzaExists) {
-                return price + 100;
-            }
-        }
-        throw new InvalidPizzaCombinationException("Incorrect pizza combination");
+        return getDeliveryCost(new MenuIndex(restaurantArray), pizzaStrings);
+    }
+
+    /**
+     * A method for finding the delivery cost of a pizza order using a prebuilt menu index
+     * @param menuIndex Index of the menus of participating restaurants
+     * @param pizzaStrings Strings of pizza names which for the delivery cost is calculated
+     * @return Sum of pizza price and delivery cost
+     * @throws InvalidPizzaCombinationException if an invalid pizza combination is detected
+     */
+    public int getDeliveryCost(MenuIndex menuIndex, String... pizzaStrings) throws InvalidPizzaCombinationException {
+        return menuIndex.getPizzaPrice(pizzaStrings) + 100;
     }
 
     /**
      * A method for verifying the validity of an order by conducting checks on order contents, credit
-     * card information and if it's possible to deliver the order
+     * card information and if it's possible to deliver the order. The menus are indexed for this call only.
      *
      * @param restaurants array of order restaurants
      * @return outcome of the order as a OrderOutcome object.
      */
     public OrderOutcome isOrderValid(Restaurant[] restaurants) {
+        return isOrderValid(new MenuIndex(restaurants));
+    }
+
+    /**
+     * A method for verifying the validity of an order against a prebuilt menu index
+     *
+     * @param restaurants index of the menus of order restaurants
+     * @return outcome of the order as a OrderOutcome object.
+     */
+    public OrderOutcome isOrderValid(MenuIndex restaurants) {
         try {
             if (!this.isCreditCardNumberValid()) {
                 return InvalidCardNumber;
@@ -170,22 +183,6 @@ public class Order{
         }
     }
 
-    /**
-     * A method for building a JsonObject
-     *
-     * @param cost  cost of order in pence
-     * @param orderNumber order number
-     * @param orderOutcome order outcome
-     * @return JsonObject with information from the parameters
-     */
-    public static JsonObject getOrderJson(int cost, String orderNumber, OrderOutcome orderOutcome) {
-        JsonObject json = new JsonObject();
-        json.addProperty("orderNo", orderNumber);
-        json.addProperty("outcome", orderOutcome.toString());
-        json.addProperty("costInPence", cost);
-        return json;
-    }
-
     /**
      * A method for checking if the credit card number is valid
      *
@@ -227,25 +224,19 @@ public class Order{
     /**
      * A method for checking if any of the restaurants offer the pizza
      *
-     * @param restaurants array of restaurants
+     * @param restaurants index of the restaurant menus
      * @return boolean showing if the pizza exists
      */
-    private boolean checkIfPizzaNotDefined(Restaurant[] restaurants) {
-        Set<String> pizzas = new TreeSet<>();
-        for (Restaurant restaurant : restaurants) {
-            for (Menu menuItem : restaurant.getMenu()) {
-                pizzas.add(menuItem.name);
-            }
-        }
+    private boolean checkIfPizzaNotDefined(MenuIndex restaurants) {
         for (String pizzaName : this.orderItems) {
-            if (!pizzas.contains(pizzaName)) {
+            if (!restaurants.isDefined(pizzaName)) {
                 return false;
             }
         }
         return true;
     }
 
-    /** A method for locating a restaurant that can fulfill an order
+    /** A method for locating a restaurant that can fulfill an order. The menus are indexed for this call only.
      *
      * @param restaurants array of restaurants
      * @param pizzaList list of pizzas to be ordered
@@ -254,43 +245,55 @@ public class Order{
      */
     public Restaurant findRestaurant(Restaurant[] restaurants, String[] pizzaList)
             throws InvalidPizzaCombinationException {
-        //pick a restaurant
-        for (Restaurant restaurant : restaurants) {
-            //pick a pizza from ordered pizzas
-            for (int i = 0; i < pizzaList.length; i++) {
-                boolean pizzaFound = false;
-                //look for pizza in menu
-                for (Menu menuItem : restaurant.getMenu()) {
-                    if (Objects.equals(pizzaList[i], menuItem.name)) {
-                        pizzaFound = true;
-                        break;
-                    }
-                }
-                if (i == pizzaList.length - 1) {
-                    return restaurant;
-                }
-                else if (!pizzaFound) {
-                    break;
-                }
-            }
-        }
-        throw new InvalidPizzaCombinationException("Invalid pizza combination");
+        return findRestaurant(new MenuIndex(restaurants), pizzaList);
+    }
+
+    /** A method for locating a restaurant that can fulfill an order using a prebuilt menu index
+     *
+     * @param restaurants index of the restaurant menus
+     * @param pizzaList list of pizzas to be ordered
+     * @return restaurant which can fulfill the order
+     * @throws InvalidPizzaCombinationException exception for if the pizza combination is not valid
+     */
+    public Restaurant findRestaurant(MenuIndex restaurants, String[] pizzaList)
+            throws InvalidPizzaCombinationException {
+        return restaurants.findRestaurant(pizzaList);
     }
 
     /**
-     * A method for writing order outcomes to a json file
+     * A method for writing order outcomes to a json file. Outcomes are looked up by order number and written
+     * one at a time.
      *
-     * @param orders array of order outcomes as jsons
-     * @param date order date
+     * @param orders validated orders with their outcomes
+     * @param date   order date
      */
-    public static void writeOrderOutcomes(List<JsonObject> orders, String date) {
-        try (PrintWriter out = new PrintWriter(new FileWriter("deliveries-" + date + ".json"))) {
-            out.write(orders.toString());
+    public static void writeOrderOutcomes(ValidatedOrders orders, String date) {
+        try (OrderOutcomeWriter out = new OrderOutcomeWriter(date)) {
+            writeOrderOutcomes(orders, out);
         } catch (Exception exception) {
             exception.printStackTrace();
         }
     }
 
+    /**
+     * A method for writing order outcomes as json to a stream, in the same form as the deliveries file
+     *
+     * @param orders validated orders with their outcomes
+     * @param out    stream the outcomes are written to, closed afterwards
+     */
+    public static void writeOrderOutcomes(ValidatedOrders orders, OutputStream out) {
+        try (OrderOutcomeWriter writer = new OrderOutcomeWriter(out)) {
+            writeOrderOutcomes(orders, writer);
+        }
+    }
+
+    private static void writeOrderOutcomes(ValidatedOrders orders, OrderOutcomeWriter out) {
+        for (Order order : orders.getOrders()) {
+            OrderOutcome outcome = orders.getOutcome(order.orderNo);
+            out.writeOutcome(order.orderNo, outcome, outcome == Delivered ? order.priceTotalInPence : 0);
+        }
+    }
+
     /**
      * A method for checking if CVV number is valid
      *
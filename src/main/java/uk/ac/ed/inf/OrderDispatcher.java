@@ -0,0 +1,49 @@
+package uk.ac.ed.inf;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * A dispatcher handing valid orders out to the drones of a fleet. Every restaurant has a lock-free queue of its
+ * orders; a drone claims an order from the closest restaurant whose round trip still fits in its remaining
+ * charge, so every order is delivered by at most one drone.
+ */
+public class OrderDispatcher {
+    private final ArrayList<Map.Entry<Restaurant, Integer>> restaurantsByDistance;
+    private final Map<Restaurant, Queue<Order>> queues = new HashMap<>();
+
+    /**
+     * Constructs a dispatcher for the valid orders of a day
+     *
+     * @param orders                valid orders grouped by the restaurant that can fulfill them, e.g. from
+     *                              {@link Drone#getValidOrdersByDistance}
+     * @param restaurantsByDistance restaurants and the number of moves of their round trip, closest first
+     */
+    public OrderDispatcher(HashMap<Restaurant, ArrayList<Order>> orders,
+                           ArrayList<Map.Entry<Restaurant, Integer>> restaurantsByDistance) {
+        this.restaurantsByDistance = restaurantsByDistance;
+        for (Map.Entry<Restaurant, Integer> restaurant : restaurantsByDistance) {
+            this.queues.put(restaurant.getKey(),
+                    new ConcurrentLinkedQueue<>(orders.getOrDefault(restaurant.getKey(), new ArrayList<>())));
+        }
+    }
+
+    /**
+     * Claims the next order a drone can still deliver
+     *
+     * @param batteryCharge remaining number of moves of the drone
+     * @return the claimed delivery, or null if no remaining order fits in the charge
+     */
+    public DeliveryScheduler.Delivery claim(int batteryCharge) {
+        for (Map.Entry<Restaurant, Integer> restaurant : this.restaurantsByDistance) {
+            if (restaurant.getValue() > batteryCharge) {
+                break;
+            }
+            Order order = this.queues.get(restaurant.getKey()).poll();
+            if (order != null) {
+                return new DeliveryScheduler.Delivery(restaurant.getKey(), order);
+            }
+        }
+        return null;
+    }
+}
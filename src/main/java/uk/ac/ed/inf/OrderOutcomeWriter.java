@@ -0,0 +1,68 @@
+package uk.ac.ed.inf;
+
+import java.io.*;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/**
+ * A class that writes order outcomes to a deliveries json file one at a time
+ */
+public class OrderOutcomeWriter implements Closeable {
+
+    private final JsonGenerator generator;
+
+    /**
+     * Opens the deliveries file for a date
+     *
+     * @param date order date
+     */
+    public OrderOutcomeWriter(String date) {
+        this(FlightPathWriter.openFile("deliveries-" + date + ".json"));
+    }
+
+    /**
+     * Constructs a writer that writes order outcomes to a stream
+     *
+     * @param out stream the order outcomes are written to
+     */
+    public OrderOutcomeWriter(OutputStream out) {
+        try {
+            this.generator = Json.FACTORY.createGenerator(out, JsonEncoding.UTF8);
+            this.generator.writeStartArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Writes the outcome of one order
+     *
+     * @param orderNumber  order number
+     * @param orderOutcome order outcome
+     * @param cost         cost of order in pence
+     */
+    public void writeOutcome(String orderNumber, OrderOutcome orderOutcome, int cost) {
+        try {
+            this.generator.writeStartObject();
+            this.generator.writeStringField("orderNo", orderNumber);
+            this.generator.writeStringField("outcome", orderOutcome.toString());
+            this.generator.writeNumberField("costInPence", cost);
+            this.generator.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Ends the json array and closes the file
+     */
+    @Override
+    public void close() {
+        try {
+            this.generator.writeEndArray();
+            this.generator.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package uk.ac.ed.inf;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Predicate;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+/**
+ * A class that reads orders from a json array one at a time with Jackson's token parser, so orders can be
+ * validated while the rest of the array is still being read. Orders placed on other days than the ones asked for
+ * are skipped as soon as their date has been read and are never built. The reader keeps the time it spent
+ * reading, which includes waiting for the data to arrive, so callers can tell it apart from their own work on
+ * the orders.
+ */
+public class OrderReader implements Iterator<Order>, Closeable {
+
+    private final JsonParser parser;
+    private final Predicate<String> dateFilter;
+    private Order next;
+    private boolean finished;
+    private long readNanos;
+
+    /**
+     * Constructs a reader over a json array of orders
+     *
+     * @param in         stream containing the json array
+     * @param dateFilter condition on the order date, or null to read all orders
+     */
+    public OrderReader(InputStream in, Predicate<String> dateFilter) {
+        this.dateFilter = dateFilter;
+        try {
+            this.parser = Json.FACTORY.createParser(in);
+            if (this.parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IOException("Expected a json array of orders");
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Opens a reader over the orders at a URL, requested through the shared {@link RestClient}
+     *
+     * @param url  address of the orders
+     * @param date date of the orders to keep, or null to keep all orders
+     * @return order reader
+     * @throws IOException if the URL can not be opened
+     */
+    public static OrderReader fromUrl(String url, String date) throws IOException {
+        return new OrderReader(RestClient.get(url), forDate(date));
+    }
+
+    /**
+     * Opens a reader over the orders in a local file, such as the orders snapshot
+     *
+     * @param file path of the file
+     * @param date date of the orders to keep, or null to keep all orders
+     * @return order reader
+     * @throws IOException if the file can not be opened
+     */
+    public static OrderReader fromFile(Path file, String date) throws IOException {
+        return new OrderReader(new BufferedInputStream(Files.newInputStream(file)), forDate(date));
+    }
+
+    /**
+     * Reads all remaining orders into an array
+     *
+     * @return array of orders
+     */
+    public Order[] readAll() {
+        List<Order> orders = new ArrayList<>();
+        while (hasNext()) {
+            orders.add(next());
+        }
+        return orders.toArray(new Order[0]);
+    }
+
+    private static Predicate<String> forDate(String date) {
+        return date == null ? null : date::equals;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (this.next == null && !this.finished) {
+            long start = System.nanoTime();
+            try {
+                this.next = readNext();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                this.readNanos += System.nanoTime() - start;
+            }
+            this.finished = this.next == null;
+        }
+        return this.next != null;
+    }
+
+    @Override
+    public Order next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Order order = this.next;
+        this.next = null;
+        return order;
+    }
+
+    /**
+     * Gets the time spent reading and parsing orders so far, including the time spent waiting for the stream
+     *
+     * @return time in nanoseconds
+     */
+    public long getReadNanos() {
+        return this.readNanos;
+    }
+
+    /**
+     * Reads the next order that passes the date filter
+     *
+     * @return next order, or null at the end of the array
+     * @throws IOException if the json can not be read
+     */
+    private Order readNext() throws IOException {
+        JsonToken token;
+        while ((token = this.parser.nextToken()) == JsonToken.START_OBJECT) {
+            Order order = readOrder();
+            if (order != null) {
+                return order;
+            }
+        }
+        if (token != JsonToken.END_ARRAY && token != null) {
+            throw new IOException("Unexpected token in order array: " + token);
+        }
+        return null;
+    }
+
+    /**
+     * Reads the fields of one order object. If the order date does not pass the filter, the rest of the object
+     * is skipped.
+     *
+     * @return the order, or null if it was skipped
+     * @throws IOException if the json can not be read
+     */
+    private Order readOrder() throws IOException {
+        String orderNo = null;
+        String orderDate = null;
+        String customer = null;
+        String creditCardNumber = null;
+        String creditCardExpiry = null;
+        String cvv = null;
+        int priceTotalInPence = 0;
+        List<String> orderItems = new ArrayList<>();
+        while (this.parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = this.parser.getCurrentName();
+            JsonToken value = this.parser.nextToken();
+            switch (field) {
+                case "orderNo" -> orderNo = this.parser.getValueAsString();
+                case "orderDate" -> {
+                    orderDate = this.parser.getValueAsString();
+                    if (this.dateFilter != null && !this.dateFilter.test(orderDate)) {
+                        skipRestOfObject();
+                        return null;
+                    }
+                }
+                case "customer" -> customer = this.parser.getValueAsString();
+                case "creditCardNumber" -> creditCardNumber = this.parser.getValueAsString();
+                case "creditCardExpiry" -> creditCardExpiry = this.parser.getValueAsString();
+                case "cvv" -> cvv = this.parser.getValueAsString();
+                case "priceTotalInPence" -> priceTotalInPence = this.parser.getValueAsInt();
+                case "orderItems" -> {
+                    if (value == JsonToken.START_ARRAY) {
+                        while (this.parser.nextToken() != JsonToken.END_ARRAY) {
+                            orderItems.add(this.parser.getValueAsString());
+                        }
+                    }
+                }
+                default -> this.parser.skipChildren();
+            }
+        }
+        if (this.dateFilter != null && (orderDate == null || !this.dateFilter.test(orderDate))) {
+            return null;
+        }
+        return new Order(orderNo, orderDate, customer, creditCardNumber, creditCardExpiry, cvv,
+                priceTotalInPence, orderItems.toArray(new String[0]));
+    }
+
+    /**
+     * Skips the remaining fields of the current order object
+     *
+     * @throws IOException if the json can not be read
+     */
+    private void skipRestOfObject() throws IOException {
+        while (this.parser.nextToken() == JsonToken.FIELD_NAME) {
+            this.parser.nextToken();
+            this.parser.skipChildren();
+        }
+    }
+
+    /**
+     * Closes the underlying stream
+     */
+    @Override
+    public void close() {
+        try {
+            this.parser.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package uk.ac.ed.inf;
+
+import java.io.*;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A class that stores computed paths to restaurants in a compact binary file, so they do not have to be computed
+ * again on the next run. Every path is stored under a hash of everything it depends on: the pathfinding
+ * algorithm, whether the path was optimised, the starting position, the restaurant position and the geometry of
+ * the no-fly zones. Moving a
+ * restaurant or changing a zone therefore changes the key, and the old path is never used again.
+ */
+public class PathCache {
+    /**
+     * Version of the file format and of the move computation. Changing either must change this number.
+     */
+    static final int FORMAT_VERSION = 2;
+    private static final int MAGIC = 0x50445043;
+
+    private final Path file;
+    private final Map<String, ArrayList<DronePath>> storedPaths = new ConcurrentHashMap<>();
+    private final Map<String, ArrayList<DronePath>> usedPaths = new ConcurrentHashMap<>();
+    private volatile boolean changed;
+
+    /**
+     * Constructs a path cache and loads the paths stored in the cache file, if it exists. A cache file that can
+     * not be read, or that holds a malformed entry, is treated as an empty cache.
+     *
+     * @param file path of the cache file
+     */
+    public PathCache(Path file) {
+        this.file = file;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                return;
+            }
+            Drone.Compass[] directions = Drone.Compass.values();
+            int entryCount = in.readInt();
+            for (int i = 0; i < entryCount; i++) {
+                String key = in.readUTF();
+                int moveCount = in.readInt();
+                // no path is longer than the drone can fly on one battery charge
+                if (moveCount < 0 || moveCount > Drone.BATTERY_CHARGE) {
+                    throw new IOException("Malformed path cache entry with " + moveCount + " moves");
+                }
+                ArrayList<DronePath> path = new ArrayList<>(moveCount);
+                LngLat position = new LngLat(in.readDouble(), in.readDouble());
+                for (int j = 0; j < moveCount; j++) {
+                    int direction = in.readByte();
+                    if (direction < 0 || direction >= directions.length) {
+                        throw new IOException("Malformed path cache entry with direction " + direction);
+                    }
+                    double angle = directions[direction].angle;
+                    LngLat nextPosition = new LngLat(in.readDouble(), in.readDouble());
+                    path.add(new DronePath(angle, position, nextPosition));
+                    position = nextPosition;
+                }
+                this.storedPaths.put(key, path);
+            }
+        } catch (NoSuchFileException e) {
+            // nothing cached yet
+        } catch (IOException e) {
+            e.printStackTrace();
+            this.storedPaths.clear();
+        }
+    }
+
+    /**
+     * Computes a hash of the no-fly zone geometry, which is part of the key of every path
+     *
+     * @param noFlyZones array of no-fly zones
+     * @return hash of the zone coordinates
+     */
+    public static byte[] hashNoFlyZones(NoFlyZones[] noFlyZones) {
+        MessageDigest digest = newDigest();
+        for (NoFlyZones zone : noFlyZones) {
+            CompiledNoFlyZone compiled = zone.getCompiled();
+            updateInt(digest, compiled.size());
+            for (int i = 0; i < compiled.size(); i++) {
+                updateDouble(digest, compiled.lng(i));
+                updateDouble(digest, compiled.lat(i));
+            }
+        }
+        return digest.digest();
+    }
+
+    /**
+     * Computes the key of a path
+     *
+     * @param algorithm    pathfinding algorithm the path was computed with
+     * @param start        starting position of the path
+     * @param target       position the path leads to
+     * @param noFlyZoneHash hash of the no-fly zones from {@link #hashNoFlyZones}
+     * @return key of the path
+     */
+    public static String key(PathfindingAlgorithm algorithm, LngLat start, LngLat target, byte[] noFlyZoneHash) {
+        return key(algorithm, start, target, noFlyZoneHash, false);
+    }
+
+    /**
+     * Computes the key of a path, which is a different key for the path after it was shortened with a
+     * {@link PathOptimiser}
+     *
+     * @param algorithm     pathfinding algorithm the path was computed with
+     * @param start         starting position of the path
+     * @param target        position the path leads to
+     * @param noFlyZoneHash hash of the no-fly zones from {@link #hashNoFlyZones}
+     * @param optimised     whether the path was shortened after it was computed
+     * @return key of the path
+     */
+    public static String key(PathfindingAlgorithm algorithm, LngLat start, LngLat target, byte[] noFlyZoneHash,
+                             boolean optimised) {
+        MessageDigest digest = newDigest();
+        updateInt(digest, FORMAT_VERSION);
+        digest.update(algorithm.name().getBytes());
+        if (optimised) {
+            digest.update("optimised".getBytes());
+        }
+        updateDouble(digest, start.lng());
+        updateDouble(digest, start.lat());
+        updateDouble(digest, target.lng());
+        updateDouble(digest, target.lat());
+        digest.update(noFlyZoneHash);
+        return String.format("%064x", new BigInteger(1, digest.digest()));
+    }
+
+    /**
+     * Gets a stored path
+     *
+     * @param key key of the path
+     * @return list of moves, or null if no path is stored under the key
+     */
+    public ArrayList<DronePath> get(String key) {
+        ArrayList<DronePath> path = this.storedPaths.get(key);
+        if (path != null) {
+            this.usedPaths.put(key, path);
+        }
+        return path;
+    }
+
+    /**
+     * Stores a path
+     *
+     * @param key  key of the path
+     * @param path list of moves
+     */
+    public void put(String key, ArrayList<DronePath> path) {
+        this.storedPaths.put(key, path);
+        this.usedPaths.put(key, path);
+        this.changed = true;
+    }
+
+    /**
+     * Starts a new planning. Only the paths asked for or stored from now on are written by the next
+     * {@link #save}, so paths of zones that changed since the last planning are dropped.
+     */
+    public void beginPlanning() {
+        this.usedPaths.clear();
+    }
+
+    /**
+     * Writes the paths used since the cache was loaded, or since the last {@link #beginPlanning}, to the cache
+     * file. Paths that were not asked for belong to restaurant positions or zones that no longer exist, so they
+     * are dropped.
+     */
+    public void save() {
+        if (!this.changed && this.usedPaths.size() == this.storedPaths.size()) {
+            return;
+        }
+        Path temporaryFile = this.file.resolveSibling(this.file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                Files.newOutputStream(temporaryFile)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(this.usedPaths.size());
+            for (Map.Entry<String, ArrayList<DronePath>> entry : this.usedPaths.entrySet()) {
+                out.writeUTF(entry.getKey());
+                ArrayList<DronePath> path = entry.getValue();
+                out.writeInt(path.size());
+                out.writeDouble(path.isEmpty() ? 0.0 : path.get(0).startLongitude);
+                out.writeDouble(path.isEmpty() ? 0.0 : path.get(0).startLatitude);
+                for (DronePath move : path) {
+                    out.writeByte(compassOrdinal(move.getAngle()));
+                    out.writeDouble(move.endLongitude);
+                    out.writeDouble(move.endLatitude);
+                }
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            return;
+        }
+        try {
+            Files.move(temporaryFile, this.file, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            this.storedPaths.keySet().retainAll(this.usedPaths.keySet());
+            this.changed = false;
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static int compassOrdinal(Double angle) {
+        for (Drone.Compass direction : Drone.Compass.values()) {
+            if (angle != null && direction.angle == angle) {
+                return direction.ordinal();
+            }
+        }
+        throw new IllegalArgumentException("Move angle is not a compass direction: " + angle);
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static void updateInt(MessageDigest digest, int value) {
+        digest.update(new byte[]{(byte) (value >>> 24), (byte) (value >>> 16), (byte) (value >>> 8), (byte) value});
+    }
+
+    private static void updateDouble(MessageDigest digest, double value) {
+        long bits = Double.doubleToLongBits(value);
+        updateInt(digest, (int) (bits >>> 32));
+        updateInt(digest, (int) bits);
+    }
+}
@@ -0,0 +1,122 @@
+package uk.ac.ed.inf;
+
+import java.util.ArrayList;
+
+/**
+ * A class that shortens computed paths. A run of moves is replaced by fewer moves flown greedily towards the
+ * position the run ended at; the moves after it are shifted by the small difference between the two end
+ * positions, and if the shifted path no longer ends close to the target, greedy moves towards the target are
+ * added. A replacement is only kept if the whole path gets shorter and no move enters or crosses a no-fly zone.
+ */
+public class PathOptimiser {
+    private final NoFlyZoneIndex noFlyZones;
+
+    /**
+     * Constructs an optimiser that checks paths against no-fly zones
+     *
+     * @param noFlyZones index of no-fly zones
+     */
+    public PathOptimiser(NoFlyZoneIndex noFlyZones) {
+        this.noFlyZones = noFlyZones;
+    }
+
+    /**
+     * Shortens a path to a target as far as possible
+     *
+     * @param path   list of moves ending close to the target
+     * @param target position the path should end close to
+     * @return the shortened path, or the same list if it could not be shortened
+     */
+    public ArrayList<DronePath> optimise(ArrayList<DronePath> path, LngLat target) {
+        ArrayList<DronePath> best = path;
+        int from = 0;
+        while (from < best.size() - 1) {
+            ArrayList<DronePath> shortened = shortcutFrom(best, from, target);
+            if (shortened != null) {
+                best = shortened;
+            } else {
+                from++;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Tries to replace the moves from a position onwards with fewer moves, trying the longest runs first
+     *
+     * @param path   list of moves
+     * @param from   index of the first move that may be replaced
+     * @param target position the path should end close to
+     * @return a shorter valid path, or null if no run starting there could be shortened
+     */
+    private ArrayList<DronePath> shortcutFrom(ArrayList<DronePath> path, int from, LngLat target) {
+        DronePath first = path.get(from);
+        LngLat start = new LngLat(first.startLongitude, first.startLatitude);
+        for (int to = path.size(); to >= from + 2; to--) {
+            DronePath last = path.get(to - 1);
+            LngLat waypoint = new LngLat(last.endLongitude, last.endLatitude);
+            ArrayList<DronePath> candidate = new ArrayList<>(path.subList(0, from));
+            LngLat position = fly(candidate, start, waypoint, to - from - 1);
+            if (position == null) {
+                continue;
+            }
+            double lngOffset = position.lng() - waypoint.lng();
+            double latOffset = position.lat() - waypoint.lat();
+            boolean valid = true;
+            for (int i = to; i < path.size() && valid; i++) {
+                DronePath move = path.get(i);
+                LngLat moveStart = new LngLat(move.startLongitude + lngOffset, move.startLatitude + latOffset);
+                LngLat moveEnd = new LngLat(move.endLongitude + lngOffset, move.endLatitude + latOffset);
+                valid = isAllowed(moveStart, moveEnd);
+                candidate.add(new DronePath(move.getAngle(), moveStart, moveEnd));
+                position = moveEnd;
+            }
+            if (!valid) {
+                continue;
+            }
+            if (fly(candidate, position, target, path.size() - 1 - candidate.size()) != null) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Flies greedily from a position until close to a goal, adding the moves to a path
+     *
+     * @param path     list the moves are added to
+     * @param start    starting position
+     * @param goal     position to end up close to
+     * @param maxMoves largest number of moves that may be added
+     * @return the position reached, or null if the goal was not reached within the number of moves
+     */
+    private LngLat fly(ArrayList<DronePath> path, LngLat start, LngLat goal, int maxMoves) {
+        double lng = start.lng();
+        double lat = start.lat();
+        for (int moves = 0; !MoveKernel.closeTo(lng, lat, goal.lng(), goal.lat()); moves++) {
+            if (moves >= maxMoves) {
+                return null;
+            }
+            int bestDirection = MoveKernel.bestGreedyDirection(lng, lat, goal.lng(), goal.lat(), this.noFlyZones);
+            if (bestDirection < 0) {
+                return null;
+            }
+            Drone.Compass direction = MoveKernel.direction(bestDirection);
+            path.add(new DronePath(direction.angle, lng, lat, lng + direction.lngStep, lat + direction.latStep));
+            lng = lng + direction.lngStep;
+            lat = lat + direction.latStep;
+        }
+        return new LngLat(lng, lat);
+    }
+
+    /**
+     * Checks that a move neither ends in nor crosses a no-fly zone
+     *
+     * @param start starting position of the move
+     * @param end   ending position of the move
+     * @return boolean showing if the drone may make the move
+     */
+    private boolean isAllowed(LngLat start, LngLat end) {
+        return !end.isDroneInNoFlyZone(this.noFlyZones) && !start.isDronePassingNoFlyZone(this.noFlyZones, end);
+    }
+}
@@ -0,0 +1,76 @@
+package uk.ac.ed.inf;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Enum of the pathfinding algorithms that can be used for computing flight paths to restaurants
+ */
+public enum PathfindingAlgorithm {
+    /**
+     * Flies in the direction that gets the drone closest to the target on every move
+     */
+    GREEDY {
+        @Override
+        public ArrayList<DronePath> findPath(LngLat start, LngLat target, NoFlyZoneIndex noFlyZones) {
+            return Drone.findGreedyPath(start, target, noFlyZones);
+        }
+    },
+    /**
+     * Searches for the shortest path with A*, falling back to the greedy approach if the search is exhausted.
+     * The greedy fallback gives up after {@link #MAX_FALLBACK_MOVES} moves, so the worst case stays bounded.
+     */
+    A_STAR {
+        @Override
+        public ArrayList<DronePath> findPath(LngLat start, LngLat target, NoFlyZoneIndex noFlyZones) {
+            ArrayList<DronePath> path = new AStarSearch().findPath(start, target, noFlyZones);
+            if (path == null) {
+                return Drone.findGreedyPath(start, target, noFlyZones, MAX_FALLBACK_MOVES);
+            }
+            return path;
+        }
+    },
+    /**
+     * Walks through a {@link RouteTable} to the target. Called on its own it builds a table over a grid around
+     * the start and the target for this one path; {@link RoutePlanner} instead builds the tables of all
+     * restaurants once and keeps them, so paths from any position are served without a new table.
+     */
+    ROUTE_TABLE {
+        @Override
+        public ArrayList<DronePath> findPath(LngLat start, LngLat target, NoFlyZoneIndex noFlyZones) {
+            return RouteTable.build(target, List.of(start), RouteTable.DEFAULT_MARGIN, noFlyZones)
+                    .findPath(start, noFlyZones);
+        }
+    };
+
+    /**
+     * Number of moves after which the greedy fallback of {@link #A_STAR} gives up. A longer path could not be
+     * flown there and back on one battery charge.
+     */
+    public static final int MAX_FALLBACK_MOVES = Drone.BATTERY_CHARGE / 2;
+
+    /**
+     * Computes the moves from a starting position to a position close to the target
+     *
+     * @param start      starting position of the drone
+     * @param target     position the drone should end up close to
+     * @param noFlyZones index of no-fly zones
+     * @return list of moves to the target, or null if no path to the target was found
+     */
+    public abstract ArrayList<DronePath> findPath(LngLat start, LngLat target, NoFlyZoneIndex noFlyZones);
+
+    /**
+     * Gets an algorithm from its command line name
+     *
+     * @param name name of the algorithm, "greedy", "astar" or "table"
+     * @return pathfinding algorithm with that name
+     */
+    public static PathfindingAlgorithm fromName(String name) {
+        return switch (name.toLowerCase()) {
+            case "greedy" -> GREEDY;
+            case "astar", "a*", "a_star" -> A_STAR;
+            case "table", "route_table", "route-table" -> ROUTE_TABLE;
+            default -> throw new IllegalArgumentException("Unknown pathfinding algorithm: " + name);
+        };
+    }
+}
@@ -0,0 +1,49 @@
+package uk.ac.ed.inf;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters of the work done by path planning. A route planner hands its counters to the no-fly zone index it
+ * plans with, and the move kernel, the A* search and the index add to them. The counters may be added to from
+ * several planning threads at the same time.
+ */
+public class PlanningCounters {
+    private final LongAdder candidateMoves = new LongAdder();
+    private final LongAdder zoneEdgeTests = new LongAdder();
+
+    /**
+     * Adds evaluated candidate moves
+     *
+     * @param count number of candidate moves
+     */
+    public void addCandidateMoves(long count) {
+        this.candidateMoves.add(count);
+    }
+
+    /**
+     * Adds move-against-zone-edge intersection tests
+     *
+     * @param count number of tests
+     */
+    public void addZoneEdgeTests(long count) {
+        this.zoneEdgeTests.add(count);
+    }
+
+    /**
+     * Gets the number of candidate moves evaluated so far
+     *
+     * @return number of candidate moves
+     */
+    public long getCandidateMoves() {
+        return this.candidateMoves.sum();
+    }
+
+    /**
+     * Gets the number of move-against-zone-edge intersection tests so far
+     *
+     * @return number of tests
+     */
+    public long getZoneEdgeTests() {
+        return this.zoneEdgeTests.sum();
+    }
+}
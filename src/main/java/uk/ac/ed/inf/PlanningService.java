@@ -0,0 +1,309 @@
+package uk.ac.ed.inf;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.util.*;
+import java.util.concurrent.*;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * A resident planning service. Restaurants, no-fly zones, the menu index and the round trip paths are loaded once
+ * and kept in memory; they are refreshed on a schedule, and the paths are planned again only where the no-fly
+ * zones changed. Requests are served over HTTP with the JDK's built-in server:
+ * <ul>
+ *     <li>GET /plan/deliveries?date=YYYY-MM-DD, /plan/flightpath?date=... and /plan/drone?date=... return the
+ *     deliveries, flight path and drone files {@link App} writes for that date</li>
+ *     <li>POST /validate with a json array of orders returns their outcomes in the form of the deliveries
+ *     file</li>
+ * </ul>
+ * The plan of a date is computed once per refresh, and concurrent requests for the same date share it.
+ */
+public class PlanningService implements AutoCloseable {
+    private final DataSource dataSource;
+    private final RoutePlanner planner;
+    private final DeliveryScheduler scheduler;
+    private final LngLat startCoordinates;
+    private final HttpServer server;
+    private final ExecutorService requestPool;
+    private final ScheduledExecutorService refresher = Executors.newSingleThreadScheduledExecutor();
+    private volatile ReferenceData referenceData;
+
+    /**
+     * Reference data shared by all requests between two refreshes, together with the plans made with it
+     *
+     * @param menuIndex             index of the restaurant menus
+     * @param restaurantPaths       paths to and from each restaurant
+     * @param restaurantsByDistance restaurants and the number of moves of their round trip, closest first
+     * @param plans                 plans of the dates requested since the refresh
+     */
+    private record ReferenceData(MenuIndex menuIndex, HashMap<Restaurant, ArrayList<DronePath>> restaurantPaths,
+                                 ArrayList<Map.Entry<Restaurant, Integer>> restaurantsByDistance,
+                                 ConcurrentHashMap<String, FutureTask<DayPlan>> plans) {
+    }
+
+    /**
+     * The validated orders and flight log of one day
+     *
+     * @param validatedOrders orders of the day with their outcomes
+     * @param flightLog       moves the drone flew
+     */
+    public record DayPlan(ValidatedOrders validatedOrders, FlightLog flightLog) {
+    }
+
+    /**
+     * Constructs a service, which does not load anything or accept requests until it is started
+     *
+     * @param dataSource       source of orders, restaurants and no-fly zones
+     * @param planner          route planner, kept for the lifetime of the service
+     * @param scheduler        scheduler choosing the orders delivered on the battery charge
+     * @param startCoordinates starting position of the drone
+     * @param address          address the server listens on, port 0 for any free port
+     * @param threads          number of requests served at the same time
+     * @throws IOException if the server can not listen on the address
+     */
+    public PlanningService(DataSource dataSource, RoutePlanner planner, DeliveryScheduler scheduler,
+                           LngLat startCoordinates, InetSocketAddress address, int threads) throws IOException {
+        this.dataSource = dataSource;
+        this.planner = planner;
+        this.scheduler = scheduler;
+        this.startCoordinates = startCoordinates;
+        this.requestPool = Executors.newFixedThreadPool(threads);
+        this.server = HttpServer.create(address, 0);
+        this.server.setExecutor(this.requestPool);
+        this.server.createContext("/plan/deliveries", exchange -> handle(exchange, "GET",
+                () -> planFor(exchange), (plan, out) -> Order.writeOrderOutcomes(plan.validatedOrders(), out)));
+        this.server.createContext("/plan/flightpath", exchange -> handle(exchange, "GET",
+                () -> planFor(exchange), (plan, out) -> {
+                    try (FlightPathWriter writer = new FlightPathWriter(out)) {
+                        writer.writeLog(plan.flightLog());
+                    }
+                }));
+        this.server.createContext("/plan/drone", exchange -> handle(exchange, "GET",
+                () -> planFor(exchange), (plan, out) -> GeoJsonWriter.write(plan.flightLog(), out)));
+        this.server.createContext("/validate", exchange -> handle(exchange, "POST",
+                () -> validate(exchange.getRequestBody()),
+                (plan, out) -> Order.writeOrderOutcomes(plan.validatedOrders(), out)));
+    }
+
+    /**
+     * Loads the reference data, schedules its refresh and starts accepting requests
+     *
+     * @param refreshMinutes minutes between two refreshes
+     */
+    public void start(long refreshMinutes) {
+        refresh();
+        this.refresher.scheduleWithFixedDelay(() -> {
+            try {
+                refresh();
+            } catch (RuntimeException e) {
+                // keep serving the data of the last successful refresh
+                e.printStackTrace();
+            }
+        }, refreshMinutes, refreshMinutes, TimeUnit.MINUTES);
+        this.server.start();
+    }
+
+    /**
+     * Fetches restaurants and no-fly zones, plans the paths that changed and makes them the data new requests
+     * are served with. Plans made with the old data are dropped.
+     */
+    public void refresh() {
+        CompletableFuture<Restaurant[]> restaurantsRequest = CompletableFuture.supplyAsync(
+                this.dataSource::getRestaurants);
+        NoFlyZoneIndex noFlyZones = new NoFlyZoneIndex(this.dataSource.getNoFlyZones());
+        Restaurant[] restaurants = restaurantsRequest.join();
+        HashMap<Restaurant, ArrayList<DronePath>> restaurantPaths = this.planner.planRestaurantPaths(restaurants,
+                this.startCoordinates, noFlyZones);
+        this.referenceData = new ReferenceData(new MenuIndex(restaurants), restaurantPaths,
+                Restaurant.getRestaurantsByDistance(restaurantPaths, restaurants), new ConcurrentHashMap<>());
+    }
+
+    /**
+     * Gets the plan of a date, computing it if no request since the last refresh has asked for that date
+     *
+     * @param date order date
+     * @return plan of the date
+     * @throws InvalidPizzaCombinationException if a valid order has no restaurant that can fulfill it
+     */
+    public DayPlan plan(String date) throws InvalidPizzaCombinationException {
+        ReferenceData data = this.referenceData;
+        FutureTask<DayPlan> task = new FutureTask<>(() -> {
+            try (OrderReader reader = this.dataSource.openOrders(date)) {
+                return deliver(data, ValidatedOrders.validate(data.menuIndex(), () -> reader));
+            }
+        });
+        FutureTask<DayPlan> existing = data.plans().putIfAbsent(date, task);
+        if (existing == null) {
+            task.run();
+        } else {
+            task = existing;
+        }
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            // a failed plan is not kept, so the next request tries again
+            data.plans().remove(date, task);
+            if (e.getCause() instanceof InvalidPizzaCombinationException) {
+                throw (InvalidPizzaCombinationException) e.getCause();
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    /**
+     * Validates orders and delivers the valid ones, as they would be on their day
+     *
+     * @param in stream containing a json array of orders
+     * @return plan of the orders
+     * @throws InvalidPizzaCombinationException if a valid order has no restaurant that can fulfill it
+     */
+    public DayPlan validate(InputStream in) throws InvalidPizzaCombinationException {
+        ReferenceData data = this.referenceData;
+        try (OrderReader reader = new OrderReader(in, null)) {
+            return deliver(data, ValidatedOrders.validate(data.menuIndex(), () -> reader));
+        }
+    }
+
+    private DayPlan deliver(ReferenceData data, ValidatedOrders validatedOrders) {
+        FlightLog flightLog = new FlightLog();
+        for (Order order : new Drone().performDelivery(flightLog, data.restaurantPaths(),
+                validatedOrders.getValidOrdersByRestaurant(), data.restaurantsByDistance(), this.scheduler)) {
+            validatedOrders.markDelivered(order);
+        }
+        return new DayPlan(validatedOrders, flightLog);
+    }
+
+    /**
+     * Gets the port the server listens on
+     *
+     * @return port number
+     */
+    public int getPort() {
+        return this.server.getAddress().getPort();
+    }
+
+    /**
+     * Stops accepting requests and stops the refresh
+     */
+    @Override
+    public void close() {
+        this.server.stop(0);
+        this.refresher.shutdownNow();
+        this.requestPool.shutdown();
+    }
+
+    /**
+     * Computes the result of a request
+     */
+    private interface RequestPlanner {
+        DayPlan plan() throws InvalidPizzaCombinationException, IOException;
+    }
+
+    /**
+     * Writes the result of a request
+     */
+    private interface ResponseWriter {
+        void write(DayPlan plan, OutputStream out) throws IOException;
+    }
+
+    /**
+     * Serves one request: checks the method, computes the plan and writes it as json. Bad input is answered
+     * with status 400, and failures with status 500.
+     *
+     * @param exchange HTTP exchange
+     * @param method   HTTP method the endpoint accepts
+     * @param planner  computes the plan for the request
+     * @param writer   writes the plan
+     * @throws IOException if the response can not be sent
+     */
+    private static void handle(HttpExchange exchange, String method, RequestPlanner planner, ResponseWriter writer)
+            throws IOException {
+        try (exchange) {
+            if (!exchange.getRequestMethod().equals(method)) {
+                sendError(exchange, 405, "Use " + method);
+                return;
+            }
+            DayPlan plan;
+            try {
+                plan = planner.plan();
+            } catch (DateTimeException | IllegalArgumentException | InvalidPizzaCombinationException e) {
+                sendError(exchange, 400, e.getMessage());
+                return;
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+                sendError(exchange, 500, e.toString());
+                return;
+            }
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, 0);
+            writer.write(plan, exchange.getResponseBody());
+        }
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        byte[] body = String.valueOf(message).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(status, body.length);
+        exchange.getResponseBody().write(body);
+    }
+
+    /**
+     * Gets the plan of the date given in the query of a request
+     *
+     * @param exchange HTTP exchange
+     * @return plan of the date
+     * @throws InvalidPizzaCombinationException if a valid order has no restaurant that can fulfill it
+     */
+    private DayPlan planFor(HttpExchange exchange) throws InvalidPizzaCombinationException {
+        String date = getQueryParameter(exchange.getRequestURI(), "date");
+        List<String> dates = App.parseDates(date);
+        if (dates.size() != 1) {
+            throw new DateTimeException("Plans are made for one date at a time");
+        }
+        return plan(dates.get(0));
+    }
+
+    private static String getQueryParameter(URI uri, String name) {
+        String query = uri.getQuery();
+        if (query != null) {
+            for (String parameter : query.split("&")) {
+                if (parameter.startsWith(name + "=")) {
+                    return parameter.substring(name.length() + 1);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Starts the service from the command line and keeps it running until the process is stopped
+     *
+     * @param args "serve", the REST server address and optionally "--port=N" (default 8080),
+     *             "--refresh-minutes=N" (default 60) and the options of {@link App#main} for planning, scheduling
+     *             and snapshot files
+     * @throws IOException if the server can not listen on the port
+     */
+    public static void serve(String[] args) throws IOException {
+        int threads = Integer.parseInt(App.getOption(args, "threads",
+                String.valueOf(Runtime.getRuntime().availableProcessors())));
+        PlanningService service = new PlanningService(App.getDataSource(args, args[1]),
+                App.createRoutePlanner(args, threads),
+                DeliveryScheduler.fromName(App.getOption(args, "scheduler", "knapsack")),
+                App.START_COORDINATES, new InetSocketAddress(Integer.parseInt(App.getOption(args, "port", "8080"))),
+                threads);
+        service.start(Long.parseLong(App.getOption(args, "refresh-minutes", "60")));
+        System.out.println("Planning service listening on port " + service.getPort());
+    }
+}
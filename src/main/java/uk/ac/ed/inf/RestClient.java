@@ -0,0 +1,96 @@
+package uk.ac.ed.inf;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.zip.GZIPInputStream;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+/**
+ * A class that makes all requests to the REST server through one shared HTTP client, which keeps connections
+ * alive between requests, and parses responses with the readers of {@link Json}. Requests time out and failed
+ * requests are retried a bounded number of times.
+ */
+public final class RestClient {
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(10);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long RETRY_DELAY_MILLIS = 250;
+    private static final HttpClient CLIENT = HttpClient.newBuilder()
+            .connectTimeout(CONNECT_TIMEOUT)
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .build();
+
+    private RestClient() {
+    }
+
+    /**
+     * Sends a GET request and returns the response body, decompressing it if the server sent it gzipped
+     *
+     * @param url address to request
+     * @return stream of the response body
+     * @throws IOException if the request still fails after the last retry
+     */
+    public static InputStream get(String url) throws IOException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Accept", "application/json")
+                .header("Accept-Encoding", "gzip")
+                .GET()
+                .build();
+        IOException failure = null;
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            try {
+                HttpResponse<InputStream> response = CLIENT.send(request, HttpResponse.BodyHandlers.ofInputStream());
+                int status = response.statusCode();
+                if (status >= 200 && status < 300) {
+                    boolean gzipped = response.headers().firstValue("Content-Encoding")
+                            .map(encoding -> encoding.equalsIgnoreCase("gzip")).orElse(false);
+                    return gzipped ? new GZIPInputStream(response.body()) : response.body();
+                }
+                response.body().close();
+                failure = new IOException("Request to " + url + " failed with status " + status);
+                if (status < 500 && status != 429) {
+                    throw failure;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Request to " + url + " was interrupted");
+            } catch (IOException e) {
+                if (e == failure) {
+                    throw e;
+                }
+                failure = e;
+            }
+            if (attempt < MAX_ATTEMPTS) {
+                try {
+                    Thread.sleep(RETRY_DELAY_MILLIS << (attempt - 1));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Request to " + url + " was interrupted");
+                }
+            }
+        }
+        throw failure;
+    }
+
+    /**
+     * Sends a GET request and parses the json response
+     *
+     * @param url    address to request
+     * @param reader reader of the parsed value, such as {@link Json#RESTAURANTS}
+     * @param <T>    type of the parsed value
+     * @return parsed response
+     * @throws IOException if the request fails or the response can not be parsed
+     */
+    public static <T> T getJson(String url, ObjectReader reader) throws IOException {
+        try (InputStream body = get(url)) {
+            return reader.readValue(body);
+        }
+    }
+}
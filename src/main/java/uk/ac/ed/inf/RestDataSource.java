@@ -0,0 +1,64 @@
+package uk.ac.ed.inf;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.*;
+
+/**
+ * A data source that requests everything from the REST server
+ */
+public class RestDataSource implements DataSource {
+    private final String restUrl;
+
+    /**
+     * Constructs a data source for a REST server
+     *
+     * @param restUrl base address of the REST server
+     */
+    public RestDataSource(String restUrl) {
+        this.restUrl = restUrl;
+    }
+
+    @Override
+    public OrderReader openOrders(String date) {
+        try {
+            return OrderReader.fromUrl(getOrdersUrl() + "/" + date, date);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Opens a reader over the orders of several dates. A single date is requested on its own; for a range, all
+     * orders are streamed with one request, skipping orders placed on days outside the range.
+     *
+     * @param dates list of dates
+     * @return order reader, to be closed by the caller
+     */
+    @Override
+    public OrderReader openOrders(List<String> dates) {
+        if (dates.size() == 1) {
+            return openOrders(dates.get(0));
+        }
+        Set<String> dateSet = new HashSet<>(dates);
+        try {
+            return new OrderReader(RestClient.get(getOrdersUrl()), dateSet::contains);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private String getOrdersUrl() {
+        return (this.restUrl.endsWith("/") ? this.restUrl : this.restUrl + "/") + "orders";
+    }
+
+    @Override
+    public Restaurant[] getRestaurants() {
+        return Restaurant.getRestaurantsFromRestServer(this.restUrl);
+    }
+
+    @Override
+    public NoFlyZones[] getNoFlyZones() {
+        return CentralArea.getNoFlyZones(this.restUrl);
+    }
+}
@@ -1,7 +1,6 @@
 package uk.ac.ed.inf;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import java.net.URL;
 import java.util.*;
 import java.io.IOException;
 
@@ -19,16 +18,13 @@ public class Restaurant {
     public List<Menu> menu;
 
     /**
-     * A method that gets an array of menus of the restaurants
+     * A method that gets an array of menus of the restaurants. The array is a copy, so changing it does not
+     * change the restaurant. Code that looks up menus often should use a {@link MenuIndex} instead.
      * @return array of menus
      */
+    @JsonIgnore
     public Menu[] getMenu() {
-        int size = this.menu.size();
-        Menu[] menu = new Menu[size];
-        for (int i = 0; i < size; i++) {
-            menu[i] = this.menu.get(i);
-        }
-        return menu;
+        return this.menu.toArray(new Menu[0]);
     }
 
     /**
@@ -45,7 +41,7 @@ public class Restaurant {
             else {
                 url = serverBaseAddress + "restaurants";
             }
-            return new ObjectMapper().readValue(new URL(url), Restaurant[].class);
+            return RestClient.getJson(url, Json.RESTAURANTS);
         }
         catch (IOException e) {
             throw new RuntimeException(e);
@@ -80,6 +76,10 @@ public class Restaurant {
                     closestRestaurant = path.getKey();
                 }
             }
+            if (closestRestaurant == null) {
+                // restaurants without a path are not delivered from
+                break;
+            }
             restaurantsAlreadyProcessed.add(closestRestaurant);
             restaurantsByDistance.add(new AbstractMap.SimpleEntry<>(closestRestaurant, minSteps));
         }
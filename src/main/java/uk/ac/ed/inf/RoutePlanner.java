@@ -0,0 +1,455 @@
+package uk.ac.ed.inf;
+
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * A class that computes the round trip flight paths to restaurants. The path to each restaurant does not depend
+ * on any other restaurant, so the paths are computed concurrently on a fork-join pool. Paths found in the
+ * optional path cache are reused instead of being computed again. Paths can also be shortened with a
+ * {@link PathOptimiser} before the round trips are built.
+ * <p>
+ * A planner remembers the zones and paths of its last planning. When it plans again with different no-fly zones,
+ * only the paths that come near a changed zone, or that a removed zone could shorten, are computed again.
+ * With {@link PathfindingAlgorithm#ROUTE_TABLE} the planner also keeps the route tables the paths were walked
+ * through, so a drone can be routed from any position without building them again.
+ */
+public class RoutePlanner implements AutoCloseable {
+    private final PathfindingAlgorithm algorithm;
+    private final ForkJoinPool pool;
+    private final PathCache pathCache;
+    private final boolean optimisePaths;
+    private final PlanningCounters counters;
+    private final Map<Restaurant, Integer> movesSaved = new ConcurrentHashMap<>();
+    private final Map<PathKey, PlannedPath> plannedPaths = new ConcurrentHashMap<>();
+    private NoFlyZones[] plannedZones;
+    private int pathsPlanned;
+    private RouteTables routeTables;
+    private LngLat routeTableStart;
+    private NoFlyZones[] routeTableZones;
+
+    /**
+     * Start and target of a planned path
+     *
+     * @param start  starting position
+     * @param target position the path ends close to
+     */
+    private record PathKey(LngLat start, LngLat target) {
+    }
+
+    /**
+     * A path computed in an earlier planning
+     *
+     * @param searchedPath path as found by the pathfinding algorithm
+     * @param path         path after optimisation, the same as the searched path without it
+     * @param roundTrip    round trip built from the path
+     */
+    private record PlannedPath(ArrayList<DronePath> searchedPath, ArrayList<DronePath> path,
+                               ArrayList<DronePath> roundTrip) {
+    }
+
+    /**
+     * Constructs a route planner which uses one thread per available processor
+     *
+     * @param algorithm pathfinding algorithm used for the path to each restaurant
+     */
+    public RoutePlanner(PathfindingAlgorithm algorithm) {
+        this(algorithm, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructs a route planner with a fixed number of planning threads
+     *
+     * @param algorithm   pathfinding algorithm used for the path to each restaurant
+     * @param parallelism number of restaurants planned at the same time
+     */
+    public RoutePlanner(PathfindingAlgorithm algorithm, int parallelism) {
+        this(algorithm, parallelism, null);
+    }
+
+    /**
+     * Constructs a route planner with a fixed number of planning threads and a cache of previously computed paths
+     *
+     * @param algorithm   pathfinding algorithm used for the path to each restaurant
+     * @param parallelism number of restaurants planned at the same time
+     * @param pathCache   cache of previously computed paths, or null to always compute them
+     */
+    public RoutePlanner(PathfindingAlgorithm algorithm, int parallelism, PathCache pathCache) {
+        this(algorithm, parallelism, pathCache, false);
+    }
+
+    /**
+     * Constructs a route planner with a fixed number of planning threads, a cache of previously computed paths
+     * and optional shortening of the computed paths
+     *
+     * @param algorithm     pathfinding algorithm used for the path to each restaurant
+     * @param parallelism   number of restaurants planned at the same time
+     * @param pathCache     cache of previously computed paths, or null to always compute them
+     * @param optimisePaths whether paths are shortened with a {@link PathOptimiser}
+     */
+    public RoutePlanner(PathfindingAlgorithm algorithm, int parallelism, PathCache pathCache,
+                        boolean optimisePaths) {
+        this(algorithm, parallelism, pathCache, optimisePaths, null);
+    }
+
+    /**
+     * Constructs a route planner with a fixed number of planning threads, a cache of previously computed paths,
+     * optional shortening of the computed paths and counters of the planning work
+     *
+     * @param algorithm     pathfinding algorithm used for the path to each restaurant
+     * @param parallelism   number of restaurants planned at the same time
+     * @param pathCache     cache of previously computed paths, or null to always compute them
+     * @param optimisePaths whether paths are shortened with a {@link PathOptimiser}
+     * @param counters      counters the candidate moves and zone edge tests of planning are added to, or null to
+     *                      not count them
+     */
+    public RoutePlanner(PathfindingAlgorithm algorithm, int parallelism, PathCache pathCache,
+                        boolean optimisePaths, PlanningCounters counters) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1");
+        }
+        this.algorithm = algorithm;
+        this.pool = new ForkJoinPool(parallelism);
+        this.pathCache = pathCache;
+        this.optimisePaths = optimisePaths;
+        this.counters = counters;
+    }
+
+    /**
+     * Computes the round trip flight path from the starting position to every restaurant. Without path
+     * optimisation the result is the same as the one of {@link Drone#planRestaurantPaths}. Paths of the last
+     * planning are reused if the no-fly zones did not change in a way that can affect them. Restaurants no path
+     * was found to are left out, so no orders are delivered from them.
+     *
+     * @param restaurants       array of restaurants
+     * @param beginningPosition The drone's starting position
+     * @param zoneIndex         index of no-fly zones
+     * @return HashMap of restaurant and the computed round trip path to it
+     */
+    public synchronized HashMap<Restaurant, ArrayList<DronePath>> planRestaurantPaths(Restaurant[] restaurants,
+                                                                                      LngLat beginningPosition,
+                                                                                      NoFlyZoneIndex zoneIndex) {
+        NoFlyZoneIndex noFlyZones = zoneIndex.withCounters(this.counters);
+        NoFlyZoneChanges changes = this.plannedZones == null ? null
+                : NoFlyZoneChanges.between(this.plannedZones, noFlyZones.getZones());
+        byte[] noFlyZoneHash = this.pathCache == null ? null : PathCache.hashNoFlyZones(noFlyZones.getZones());
+        if (this.pathCache != null) {
+            this.pathCache.beginPlanning();
+        }
+        this.movesSaved.clear();
+        Set<PathKey> keys = new HashSet<>();
+        PathOptimiser optimiser = this.optimisePaths ? new PathOptimiser(noFlyZones) : null;
+        HashMap<Restaurant, ArrayList<DronePath>> restaurantPaths = new HashMap<>();
+        List<Restaurant> planned = new ArrayList<>();
+        List<Callable<PlannedPath>> tasks = new ArrayList<>();
+        for (Restaurant restaurant : restaurants) {
+            LngLat target = new LngLat(restaurant.longitude, restaurant.latitude);
+            PathKey key = new PathKey(beginningPosition, target);
+            keys.add(key);
+            PlannedPath previous = this.plannedPaths.get(key);
+            if (changes != null && previous != null && !isAffected(previous, key, changes)) {
+                restaurantPaths.put(restaurant, previous.roundTrip());
+                // the paths stay valid under the new zones, so they are cached under their hash as well
+                storePath(beginningPosition, target, noFlyZoneHash, false, previous.searchedPath());
+                if (this.optimisePaths) {
+                    storePath(beginningPosition, target, noFlyZoneHash, true, previous.path());
+                    this.movesSaved.put(restaurant,
+                            2 * (previous.searchedPath().size() - previous.path().size()));
+                }
+                continue;
+            }
+            planned.add(restaurant);
+        }
+        RouteTables tables = this.algorithm == PathfindingAlgorithm.ROUTE_TABLE
+                ? getRouteTables(restaurants, planned, beginningPosition, noFlyZones, noFlyZoneHash) : null;
+        for (Restaurant restaurant : planned) {
+            LngLat target = new LngLat(restaurant.longitude, restaurant.latitude);
+            PathKey key = new PathKey(beginningPosition, target);
+            RouteTable table = tables == null ? null : tables.getRestaurantTables().get(restaurant);
+            tasks.add(() -> {
+                PlannedPath plannedPath = planPath(beginningPosition, target, noFlyZones, noFlyZoneHash, optimiser,
+                        table);
+                if (plannedPath == null) {
+                    this.plannedPaths.remove(key);
+                    return null;
+                }
+                if (optimiser != null) {
+                    // every move saved on the way there is also saved on the way back
+                    this.movesSaved.put(restaurant,
+                            2 * (plannedPath.searchedPath().size() - plannedPath.path().size()));
+                }
+                this.plannedPaths.put(key, plannedPath);
+                return plannedPath;
+            });
+        }
+        try {
+            List<Future<PlannedPath>> results = this.pool.invokeAll(tasks);
+            for (int i = 0; i < planned.size(); i++) {
+                PlannedPath plannedPath = results.get(i).get();
+                if (plannedPath != null) {
+                    restaurantPaths.put(planned.get(i), plannedPath.roundTrip());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        }
+        // paths to restaurants that are no longer planned for are not kept
+        this.plannedPaths.keySet().retainAll(keys);
+        this.plannedZones = noFlyZones.getZones();
+        this.pathsPlanned = planned.size();
+        if (this.pathCache != null) {
+            this.pathCache.save();
+        }
+        return restaurantPaths;
+    }
+
+    /**
+     * Checks if a change of the no-fly zones can affect a path planned before it. A path is affected if an added
+     * or removed outline comes within one move of any of its moves: every choice a search made for the path only
+     * looked at moves that close. A removed outline also affects the path if a path shorter than the planned one
+     * could pass through it, that is if the outline reaches into the ellipse around the start and the target
+     * that every path of at most that many moves lies in.
+     *
+     * @param planned path planned before the change
+     * @param key     start and target of the path
+     * @param changes changes of the no-fly zones
+     * @return boolean showing if the path has to be planned again
+     */
+    private static boolean isAffected(PlannedPath planned, PathKey key, NoFlyZoneChanges changes) {
+        for (CompiledNoFlyZone zone : changes.getAdded()) {
+            if (isNear(planned.searchedPath(), key.start(), zone) || isNear(planned.path(), key.start(), zone)) {
+                return true;
+            }
+        }
+        double reach = planned.searchedPath().size() * MoveKernel.STEP_LENGTH + MoveKernel.CLOSE_DISTANCE;
+        for (CompiledNoFlyZone zone : changes.getRemoved()) {
+            if (isNear(planned.searchedPath(), key.start(), zone) || isNear(planned.path(), key.start(), zone)
+                    || distanceTo(zone, key.start()) + distanceTo(zone, key.target()) <= reach) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks if the bounding box of a zone comes within one move of any move of a path
+     *
+     * @param path  list of moves
+     * @param start starting position of the path, which is all of it if it has no moves
+     * @param zone  outline of a zone
+     * @return boolean showing if the zone is near the path
+     */
+    private static boolean isNear(ArrayList<DronePath> path, LngLat start, CompiledNoFlyZone zone) {
+        double reach = MoveKernel.STEP_LENGTH;
+        if (path.isEmpty()) {
+            return distanceTo(zone, start) <= reach;
+        }
+        for (DronePath move : path) {
+            if (Math.min(move.startLongitude, move.endLongitude) - reach <= zone.maxLng
+                    && Math.max(move.startLongitude, move.endLongitude) + reach >= zone.minLng
+                    && Math.min(move.startLatitude, move.endLatitude) - reach <= zone.maxLat
+                    && Math.max(move.startLatitude, move.endLatitude) + reach >= zone.minLat) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Calculates the distance from a position to the bounding box of a zone
+     *
+     * @param zone     outline of a zone
+     * @param position position
+     * @return distance to the nearest point of the bounding box, 0 if the position is inside it
+     */
+    private static double distanceTo(CompiledNoFlyZone zone, LngLat position) {
+        double lng = Math.max(zone.minLng, Math.min(zone.maxLng, position.lng()));
+        double lat = Math.max(zone.minLat, Math.min(zone.maxLat, position.lat()));
+        return MoveKernel.distance(lng, lat, position.lng(), position.lat());
+    }
+
+    /**
+     * Gets the number of paths that were computed, rather than reused, in the last planning
+     *
+     * @return number of computed paths
+     */
+    public int getPathsPlanned() {
+        return this.pathsPlanned;
+    }
+
+    /**
+     * Builds the route tables to every restaurant and back to the starting position, one table per planning
+     * thread at a time. All tables cover the restaurants and the starting position.
+     *
+     * @param restaurants       array of restaurants
+     * @param beginningPosition The drone's starting position
+     * @param zoneIndex         index of no-fly zones
+     * @return route tables of the delivery area
+     */
+    public RouteTables planRouteTables(Restaurant[] restaurants, LngLat beginningPosition,
+                                       NoFlyZoneIndex zoneIndex) {
+        NoFlyZoneIndex noFlyZones = zoneIndex.withCounters(this.counters);
+        List<LngLat> covered = new ArrayList<>();
+        covered.add(beginningPosition);
+        for (Restaurant restaurant : restaurants) {
+            covered.add(new LngLat(restaurant.longitude, restaurant.latitude));
+        }
+        List<Callable<RouteTable>> tasks = new ArrayList<>();
+        for (LngLat target : covered) {
+            tasks.add(() -> RouteTable.build(target, covered, RouteTable.DEFAULT_MARGIN, noFlyZones));
+        }
+        try {
+            List<Future<RouteTable>> results = this.pool.invokeAll(tasks);
+            HashMap<Restaurant, RouteTable> toRestaurants = new HashMap<>();
+            for (int i = 0; i < restaurants.length; i++) {
+                toRestaurants.put(restaurants[i], results.get(i + 1).get());
+            }
+            return new RouteTables(toRestaurants, results.get(0).get(), noFlyZones);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    /**
+     * Gets the route tables of the last planning that walked a path through them
+     *
+     * @return route tables of the delivery area, or null if the planner does not use route tables or every path
+     * of the last planning was reused or found in the path cache
+     */
+    public synchronized RouteTables getRouteTables() {
+        return this.routeTables;
+    }
+
+    /**
+     * Gets the route tables for the paths to be computed in a planning. The tables of an earlier planning are
+     * kept as long as the starting position, the restaurants and the no-fly zones are the same; they are only
+     * built again if a path has to be walked through them and is not in the path cache.
+     *
+     * @param restaurants       array of all restaurants
+     * @param planned           restaurants whose path is computed in this planning
+     * @param beginningPosition The drone's starting position
+     * @param noFlyZones        index of no-fly zones
+     * @param noFlyZoneHash     hash of the no-fly zones, or null if there is no path cache
+     * @return route tables of the delivery area, or null if no path has to be walked through them
+     */
+    private RouteTables getRouteTables(Restaurant[] restaurants, List<Restaurant> planned, LngLat beginningPosition,
+                                       NoFlyZoneIndex noFlyZones, byte[] noFlyZoneHash) {
+        if (this.routeTables != null && beginningPosition.equals(this.routeTableStart)
+                && this.routeTables.getRestaurantTables().keySet().equals(new HashSet<>(Arrays.asList(restaurants)))
+                && NoFlyZoneChanges.between(this.routeTableZones, noFlyZones.getZones()).isEmpty()) {
+            return this.routeTables;
+        }
+        boolean walked = false;
+        for (Restaurant restaurant : planned) {
+            LngLat target = new LngLat(restaurant.longitude, restaurant.latitude);
+            if (getCachedPath(beginningPosition, target, noFlyZoneHash, false) == null) {
+                walked = true;
+                break;
+            }
+        }
+        // tables built for other restaurants or zones are dropped either way
+        this.routeTables = walked ? planRouteTables(restaurants, beginningPosition, noFlyZones) : null;
+        this.routeTableStart = beginningPosition;
+        this.routeTableZones = noFlyZones.getZones();
+        return this.routeTables;
+    }
+
+    /**
+     * Gets the number of round trip moves path optimisation saved for each restaurant in the last planning
+     *
+     * @return map of restaurant and the moves saved, empty if paths are not optimised
+     */
+    public Map<Restaurant, Integer> getMovesSaved() {
+        return Collections.unmodifiableMap(this.movesSaved);
+    }
+
+    /**
+     * Gets the path to a target, and the path after optimisation, from the path cache, or computes and caches
+     * them if they are not there. A warm run therefore neither searches nor optimises.
+     *
+     * @param beginningPosition The drone's starting position
+     * @param target            position the drone should end up close to
+     * @param noFlyZones        index of no-fly zones
+     * @param noFlyZoneHash     hash of the no-fly zones, or null if there is no path cache
+     * @param optimiser         optimiser shortening the path, or null if paths are not optimised
+     * @param table             route table to the target the path is walked through, or null to search for it
+     * @return planned path to the target, or null if no path to the target was found
+     */
+    private PlannedPath planPath(LngLat beginningPosition, LngLat target, NoFlyZoneIndex noFlyZones,
+                                 byte[] noFlyZoneHash, PathOptimiser optimiser, RouteTable table) {
+        ArrayList<DronePath> searchedPath = getCachedPath(beginningPosition, target, noFlyZoneHash, false);
+        if (searchedPath == null) {
+            searchedPath = table != null ? table.findPath(beginningPosition, noFlyZones)
+                    : this.algorithm.findPath(beginningPosition, target, noFlyZones);
+            if (searchedPath == null) {
+                return null;
+            }
+            storePath(beginningPosition, target, noFlyZoneHash, false, searchedPath);
+        }
+        ArrayList<DronePath> path = searchedPath;
+        if (optimiser != null) {
+            path = getCachedPath(beginningPosition, target, noFlyZoneHash, true);
+            if (path == null) {
+                path = optimiser.optimise(searchedPath, target);
+                storePath(beginningPosition, target, noFlyZoneHash, true, path);
+            }
+        }
+        return new PlannedPath(searchedPath, path, Drone.buildRoundTrip(path, beginningPosition));
+    }
+
+    /**
+     * Gets a path from the path cache
+     *
+     * @param beginningPosition The drone's starting position
+     * @param target            position the path leads to
+     * @param noFlyZoneHash     hash of the no-fly zones, or null if there is no path cache
+     * @param optimised         whether the path is the one after optimisation
+     * @return list of moves to the target, or null if there is no path cache or the path is not in it
+     */
+    private ArrayList<DronePath> getCachedPath(LngLat beginningPosition, LngLat target, byte[] noFlyZoneHash,
+                                               boolean optimised) {
+        if (this.pathCache == null) {
+            return null;
+        }
+        return this.pathCache.get(PathCache.key(this.algorithm, beginningPosition, target, noFlyZoneHash,
+                optimised));
+    }
+
+    /**
+     * Stores a path in the path cache, unless it is already there
+     *
+     * @param beginningPosition The drone's starting position
+     * @param target            position the path leads to
+     * @param noFlyZoneHash     hash of the no-fly zones, or null if there is no path cache
+     * @param optimised         whether the path is the one after optimisation
+     * @param path              list of moves to the target
+     */
+    private void storePath(LngLat beginningPosition, LngLat target, byte[] noFlyZoneHash, boolean optimised,
+                           ArrayList<DronePath> path) {
+        if (this.pathCache == null) {
+            return;
+        }
+        String key = PathCache.key(this.algorithm, beginningPosition, target, noFlyZoneHash, optimised);
+        if (this.pathCache.get(key) == null) {
+            this.pathCache.put(key, path);
+        }
+    }
+
+    /**
+     * Stops the planning threads
+     */
+    @Override
+    public void close() {
+        this.pool.shutdown();
+    }
+}
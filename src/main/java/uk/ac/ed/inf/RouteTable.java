@@ -0,0 +1,235 @@
+package uk.ac.ed.inf;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * A table of the number of moves left to one target from every cell of a grid around it. The table is built once
+ * by a breadth-first search that runs backwards from the cells close to the target over the 16-direction lattice,
+ * and keeps one short per cell. Planning from any position in the grid then is a walk through the table: every
+ * move goes to the neighbouring cell with the fewest moves left, which makes re-planning mid-flight, for example
+ * after a battery abort or a diversion, cost sixteen lookups per move.
+ * <p>
+ * Cells are smaller than a move, but a drone never flies exactly between cell centres, so every move of the walk
+ * is checked against the no-fly zones from the drone's actual position. If no allowed move leads into a reached
+ * cell, the drone takes one greedy step and goes on with the table; if the walk still takes too long, the rest of
+ * the path is searched with {@link PathfindingAlgorithm#A_STAR}.
+ */
+public class RouteTable {
+    /**
+     * Distance the grid extends beyond the positions it has to cover, twenty moves
+     */
+    public static final double DEFAULT_MARGIN = 20 * MoveKernel.STEP_LENGTH;
+    private static final double CELL_SIZE = MoveKernel.STEP_LENGTH / 3;
+    private static final short UNREACHED = -1;
+
+    private final LngLat target;
+    private final double minLng;
+    private final double minLat;
+    private final int columns;
+    private final int rows;
+    private final short[] movesLeft;
+
+    private RouteTable(LngLat target, double minLng, double minLat, int columns, int rows) {
+        this.target = target;
+        this.minLng = minLng;
+        this.minLat = minLat;
+        this.columns = columns;
+        this.rows = rows;
+        this.movesLeft = new short[columns * rows];
+    }
+
+    /**
+     * Builds the table for a target over a grid covering a set of positions
+     *
+     * @param target     position the drone should end up close to
+     * @param covered    positions the grid has to cover, together with the target
+     * @param margin     distance the grid extends beyond the covered positions
+     * @param noFlyZones index of no-fly zones
+     * @return route table to the target
+     */
+    public static RouteTable build(LngLat target, Iterable<LngLat> covered, double margin,
+                                   NoFlyZoneIndex noFlyZones) {
+        double minLng = target.lng();
+        double minLat = target.lat();
+        double maxLng = target.lng();
+        double maxLat = target.lat();
+        for (LngLat position : covered) {
+            minLng = Math.min(minLng, position.lng());
+            minLat = Math.min(minLat, position.lat());
+            maxLng = Math.max(maxLng, position.lng());
+            maxLat = Math.max(maxLat, position.lat());
+        }
+        minLng = minLng - margin;
+        minLat = minLat - margin;
+        int columns = (int) Math.ceil((maxLng + margin - minLng) / CELL_SIZE);
+        int rows = (int) Math.ceil((maxLat + margin - minLat) / CELL_SIZE);
+        RouteTable table = new RouteTable(target, minLng, minLat, columns, rows);
+        table.search(noFlyZones);
+        return table;
+    }
+
+    /**
+     * Fills the table with a breadth-first search backwards from the cells close to the target. A cell is reached
+     * from a neighbouring cell if a move from it into that cell is allowed, and it needs one move more than that
+     * cell.
+     *
+     * @param noFlyZones index of no-fly zones
+     */
+    private void search(NoFlyZoneIndex noFlyZones) {
+        Arrays.fill(this.movesLeft, UNREACHED);
+        // a cell is close to the target only if every position in it is
+        double arrivalDistance = MoveKernel.CLOSE_DISTANCE - CELL_SIZE * Math.sqrt(0.5);
+        int[] queue = new int[this.movesLeft.length];
+        int head = 0;
+        int tail = 0;
+        for (int cell = 0; cell < this.movesLeft.length; cell++) {
+            double lng = centreLng(cell);
+            double lat = centreLat(cell);
+            if (MoveKernel.distance(lng, lat, this.target.lng(), this.target.lat()) < arrivalDistance
+                    && !noFlyZones.contains(lng, lat)) {
+                this.movesLeft[cell] = 0;
+                queue[tail++] = cell;
+            }
+        }
+        while (head < tail) {
+            int cell = queue[head++];
+            double lng = centreLng(cell);
+            double lat = centreLat(cell);
+            for (Drone.Compass direction : Drone.Compass.values()) {
+                double fromLng = lng - direction.lngStep;
+                double fromLat = lat - direction.latStep;
+                int from = cellOf(fromLng, fromLat);
+                if (from < 0 || this.movesLeft[from] != UNREACHED
+                        || noFlyZones.contains(fromLng, fromLat)
+                        || noFlyZones.isCrossing(fromLng, fromLat, lng, lat)) {
+                    continue;
+                }
+                this.movesLeft[from] = (short) Math.min(Short.MAX_VALUE, this.movesLeft[cell] + 1);
+                queue[tail++] = from;
+            }
+        }
+    }
+
+    /**
+     * Gets the target of the table
+     *
+     * @return target position
+     */
+    public LngLat getTarget() {
+        return this.target;
+    }
+
+    /**
+     * Looks up the number of moves left to the target from a position
+     *
+     * @param lng longitude of the drone
+     * @param lat latitude of the drone
+     * @return number of moves left, or -1 if the position is outside the grid or the target cannot be reached
+     * from it
+     */
+    public int getMovesLeft(double lng, double lat) {
+        int cell = cellOf(lng, lat);
+        return cell < 0 ? UNREACHED : this.movesLeft[cell];
+    }
+
+    /**
+     * Chooses the next move from a position: the allowed move into the cell with the fewest moves left, and of
+     * those the one ending closest to the target
+     *
+     * @param lng        longitude of the drone
+     * @param lat        latitude of the drone
+     * @param noFlyZones index of no-fly zones the table was built with
+     * @return index of the direction to fly, or -1 if no allowed move leads into a reached cell
+     */
+    public int getMove(double lng, double lat, NoFlyZoneIndex noFlyZones) {
+        int bestDirection = -1;
+        int bestMovesLeft = Integer.MAX_VALUE;
+        double bestDistance = Double.MAX_VALUE;
+        for (int d = 0; d < 16; d++) {
+            Drone.Compass direction = MoveKernel.direction(d);
+            double nextLng = lng + direction.lngStep;
+            double nextLat = lat + direction.latStep;
+            int movesLeft = getMovesLeft(nextLng, nextLat);
+            if (movesLeft < 0 || movesLeft > bestMovesLeft) {
+                continue;
+            }
+            double distance = MoveKernel.distance(nextLng, nextLat, this.target.lng(), this.target.lat());
+            if ((movesLeft < bestMovesLeft || distance < bestDistance)
+                    && !noFlyZones.contains(nextLng, nextLat)
+                    && !noFlyZones.isCrossing(lng, lat, nextLng, nextLat)) {
+                bestDirection = d;
+                bestMovesLeft = movesLeft;
+                bestDistance = distance;
+            }
+        }
+        return bestDirection;
+    }
+
+    /**
+     * Computes the moves from a position to a position close to the target by walking through the table, and
+     * searches the rest of the path with A* if the walk cannot be completed
+     *
+     * @param start      starting position of the drone
+     * @param noFlyZones index of no-fly zones the table was built with
+     * @return list of moves to the target, or null if no path to the target was found
+     */
+    public ArrayList<DronePath> findPath(LngLat start, NoFlyZoneIndex noFlyZones) {
+        ArrayList<DronePath> path = new ArrayList<>();
+        double lng = start.lng();
+        double lat = start.lat();
+        double targetLng = this.target.lng();
+        double targetLat = this.target.lat();
+        // a walk that takes far longer than the straight line has gone round in circles
+        double distance = MoveKernel.distance(lng, lat, targetLng, targetLat);
+        int maxMoves = 2 * (int) (distance / MoveKernel.STEP_LENGTH) + 32;
+        while (!MoveKernel.closeTo(lng, lat, targetLng, targetLat) && path.size() < maxMoves) {
+            int move = getMove(lng, lat, noFlyZones);
+            if (move < 0) {
+                move = MoveKernel.bestGreedyDirection(lng, lat, targetLng, targetLat, noFlyZones);
+                if (move < 0) {
+                    break;
+                }
+            }
+            Drone.Compass direction = MoveKernel.direction(move);
+            double nextLng = lng + direction.lngStep;
+            double nextLat = lat + direction.latStep;
+            path.add(new DronePath(direction.angle, lng, lat, nextLng, nextLat));
+            lng = nextLng;
+            lat = nextLat;
+        }
+        if (!MoveKernel.closeTo(lng, lat, targetLng, targetLat)) {
+            ArrayList<DronePath> rest = PathfindingAlgorithm.A_STAR.findPath(new LngLat(lng, lat), this.target,
+                    noFlyZones);
+            if (rest == null) {
+                return null;
+            }
+            path.addAll(rest);
+        }
+        return path;
+    }
+
+    /**
+     * Gets the cell a position lies in
+     *
+     * @param lng longitude of the position
+     * @param lat latitude of the position
+     * @return number of the cell, or -1 if the position is outside the grid
+     */
+    private int cellOf(double lng, double lat) {
+        double column = Math.floor((lng - this.minLng) / CELL_SIZE);
+        double row = Math.floor((lat - this.minLat) / CELL_SIZE);
+        if (column < 0 || row < 0 || column >= this.columns || row >= this.rows) {
+            return -1;
+        }
+        return (int) row * this.columns + (int) column;
+    }
+
+    private double centreLng(int cell) {
+        return this.minLng + (cell % this.columns + 0.5) * CELL_SIZE;
+    }
+
+    private double centreLat(int cell) {
+        return this.minLat + (cell / this.columns + 0.5) * CELL_SIZE;
+    }
+}
@@ -0,0 +1,68 @@
+package uk.ac.ed.inf;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * The route tables of a delivery area: one to every restaurant and one back to the starting position. All tables
+ * cover the same grid around the restaurants and the starting position, so a drone anywhere in the area can be
+ * routed to any restaurant or home without a new search.
+ */
+public class RouteTables {
+    private final Map<Restaurant, RouteTable> toRestaurants;
+    private final RouteTable toBase;
+    private final NoFlyZoneIndex noFlyZones;
+
+    /**
+     * Constructs the route tables from already built tables
+     *
+     * @param toRestaurants table to every restaurant
+     * @param toBase        table to the starting position
+     * @param noFlyZones    index of no-fly zones the tables were built with
+     */
+    public RouteTables(Map<Restaurant, RouteTable> toRestaurants, RouteTable toBase, NoFlyZoneIndex noFlyZones) {
+        this.toRestaurants = toRestaurants;
+        this.toBase = toBase;
+        this.noFlyZones = noFlyZones;
+    }
+
+    /**
+     * Computes the moves from a position to a restaurant
+     *
+     * @param restaurant restaurant to fly to
+     * @param position   current position of the drone
+     * @return list of moves to the restaurant, or null if no path to it was found
+     */
+    public ArrayList<DronePath> pathToRestaurant(Restaurant restaurant, LngLat position) {
+        return this.toRestaurants.get(restaurant).findPath(position, this.noFlyZones);
+    }
+
+    /**
+     * Computes the moves from a position back to the starting position
+     *
+     * @param position current position of the drone
+     * @return list of moves to the starting position, or null if no path to it was found
+     */
+    public ArrayList<DronePath> pathToBase(LngLat position) {
+        return this.toBase.findPath(position, this.noFlyZones);
+    }
+
+    /**
+     * Gets the table to every restaurant
+     *
+     * @return map of restaurant and its route table
+     */
+    public Map<Restaurant, RouteTable> getRestaurantTables() {
+        return Collections.unmodifiableMap(this.toRestaurants);
+    }
+
+    /**
+     * Gets the table to the starting position
+     *
+     * @return route table to the starting position
+     */
+    public RouteTable getBaseTable() {
+        return this.toBase;
+    }
+}
@@ -0,0 +1,186 @@
+package uk.ac.ed.inf;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/**
+ * A class collecting the time spent in every phase of a run and counters of the work done in it. The metrics of
+ * the whole run hold the phases shared by all days, such as fetching and path planning, and every day gets its
+ * own metrics for validation, delivery and writing. All methods may be called from several threads at the same
+ * time.
+ */
+public class RunMetrics implements RunMetricsMXBean {
+    private final RunMetrics run;
+    private final Map<String, LongAdder> phaseNanos = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+    private final List<RunMetrics> days = new CopyOnWriteArrayList<>();
+
+    /**
+     * Constructs the metrics of a whole run
+     */
+    public RunMetrics() {
+        this(null);
+    }
+
+    private RunMetrics(RunMetrics run) {
+        this.run = run;
+    }
+
+    /**
+     * Creates the metrics of one day of this run. The day's file also shows the phases of the run, and the
+     * totals of the run include the day.
+     *
+     * @return metrics of the day
+     */
+    public RunMetrics newDay() {
+        RunMetrics day = new RunMetrics(this);
+        this.days.add(day);
+        return day;
+    }
+
+    /**
+     * Runs a phase and adds the time it took, also if it fails
+     *
+     * @param phase name of the phase
+     * @param work  work done in the phase
+     * @param <T>   type of the result
+     * @return result of the work
+     */
+    public <T> T time(String phase, Supplier<T> work) {
+        long start = System.nanoTime();
+        try {
+            return work.get();
+        } finally {
+            addTime(phase, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Runs a phase without a result and adds the time it took, also if it fails
+     *
+     * @param phase name of the phase
+     * @param work  work done in the phase
+     */
+    public void time(String phase, Runnable work) {
+        time(phase, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * Adds time spent in a phase
+     *
+     * @param phase name of the phase
+     * @param nanos time in nanoseconds
+     */
+    public void addTime(String phase, long nanos) {
+        this.phaseNanos.computeIfAbsent(phase, k -> new LongAdder()).add(nanos);
+    }
+
+    /**
+     * Adds to a counter
+     *
+     * @param counter name of the counter
+     * @param count   amount to add
+     */
+    public void count(String counter, long count) {
+        this.counters.computeIfAbsent(counter, k -> new LongAdder()).add(count);
+    }
+
+    @Override
+    public Map<String, Double> getPhaseMillis() {
+        Map<String, Double> millis = new TreeMap<>();
+        for (RunMetrics metrics : withDays()) {
+            metrics.phaseNanos.forEach((phase, nanos) -> millis.merge(phase, nanos.sum() / 1e6, Double::sum));
+        }
+        return millis;
+    }
+
+    @Override
+    public Map<String, Long> getCounters() {
+        Map<String, Long> totals = new TreeMap<>();
+        for (RunMetrics metrics : withDays()) {
+            metrics.counters.forEach((counter, count) -> totals.merge(counter, count.sum(), Long::sum));
+        }
+        return totals;
+    }
+
+    private List<RunMetrics> withDays() {
+        List<RunMetrics> all = new ArrayList<>();
+        all.add(this);
+        all.addAll(this.days);
+        return all;
+    }
+
+    /**
+     * Registers the metrics with the platform MBean server, so that they can be watched while the run goes on
+     */
+    public void registerMBean() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this,
+                    new ObjectName("uk.ac.ed.inf:type=RunMetrics"));
+        } catch (JMException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Writes the metrics of a day, together with the phases and counters of its run, to the metrics json file
+     *
+     * @param date order date
+     */
+    public void writeToFile(String date) {
+        try (OutputStream out = FlightPathWriter.openFile("metrics-" + date + ".json")) {
+            write(date, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Writes the metrics of a day, together with the phases and counters of its run, as json
+     *
+     * @param date order date
+     * @param out  stream the metrics are written to
+     */
+    public void write(String date, OutputStream out) {
+        Map<String, Double> millis = new TreeMap<>();
+        Map<String, Long> totals = new TreeMap<>();
+        for (RunMetrics metrics : this.run == null ? List.of(this) : List.of(this.run, this)) {
+            metrics.phaseNanos.forEach((phase, nanos) -> millis.put(phase, nanos.sum() / 1e6));
+            metrics.counters.forEach((counter, count) -> totals.put(counter, count.sum()));
+        }
+        try (JsonGenerator generator = Json.FACTORY.createGenerator(out, JsonEncoding.UTF8)) {
+            generator.writeStartObject();
+            generator.writeStringField("date", date);
+            generator.writeObjectFieldStart("phaseMillis");
+            for (Map.Entry<String, Double> phase : millis.entrySet()) {
+                generator.writeNumberField(phase.getKey(), phase.getValue());
+            }
+            generator.writeEndObject();
+            generator.writeObjectFieldStart("counters");
+            for (Map.Entry<String, Long> counter : totals.entrySet()) {
+                generator.writeNumberField(counter.getKey(), counter.getValue());
+            }
+            generator.writeEndObject();
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package uk.ac.ed.inf;
+
+import java.util.Map;
+
+/**
+ * Management interface through which the metrics of a run are exposed over JMX
+ */
+public interface RunMetricsMXBean {
+    /**
+     * Gets the time spent in every phase so far, summed over all days
+     *
+     * @return map of phase name to milliseconds
+     */
+    Map<String, Double> getPhaseMillis();
+
+    /**
+     * Gets every counter so far, summed over all days
+     *
+     * @return map of counter name to count
+     */
+    Map<String, Long> getCounters();
+}
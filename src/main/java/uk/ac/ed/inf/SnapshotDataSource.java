@@ -0,0 +1,198 @@
+package uk.ac.ed.inf;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+/**
+ * A data source that reads local snapshot files instead of the REST server. The orders snapshot is memory-mapped
+ * and indexed once by order date: the index keeps the byte ranges holding each day's orders, so reading a day
+ * parses only that slice of the file. Snapshots that are not given are requested from a fallback source.
+ * Snapshots larger than 2 GB can not be mapped as one buffer and are not supported.
+ */
+public class SnapshotDataSource implements DataSource {
+    private static final int[] NO_RANGES = new int[0];
+
+    private final Path ordersFile;
+    private final Path restaurantsFile;
+    private final Path noFlyZonesFile;
+    private final DataSource fallback;
+    private ByteBuffer orders;
+    private Map<String, int[]> rangesByDate;
+
+    /**
+     * Constructs a data source over snapshot files
+     *
+     * @param ordersFile      orders snapshot, or null to get orders from the fallback
+     * @param restaurantsFile restaurants snapshot, or null to get restaurants from the fallback
+     * @param noFlyZonesFile  no-fly zones snapshot, or null to get no-fly zones from the fallback
+     * @param fallback        source of the data without a snapshot
+     */
+    public SnapshotDataSource(Path ordersFile, Path restaurantsFile, Path noFlyZonesFile, DataSource fallback) {
+        this.ordersFile = ordersFile;
+        this.restaurantsFile = restaurantsFile;
+        this.noFlyZonesFile = noFlyZonesFile;
+        this.fallback = fallback;
+    }
+
+    @Override
+    public OrderReader openOrders(String date) {
+        if (this.ordersFile == null) {
+            return this.fallback.openOrders(date);
+        }
+        return openOrders(List.of(date));
+    }
+
+    /**
+     * Opens a reader over the slices of the snapshot holding the orders of several dates, one date after the
+     * other
+     *
+     * @param dates list of dates
+     * @return order reader, to be closed by the caller
+     */
+    @Override
+    public OrderReader openOrders(List<String> dates) {
+        if (this.ordersFile == null) {
+            return this.fallback.openOrders(dates);
+        }
+        List<InputStream> parts = new ArrayList<>();
+        parts.add(new ByteArrayInputStream("[".getBytes(StandardCharsets.UTF_8)));
+        for (String date : dates) {
+            int[] ranges = getRangesByDate().getOrDefault(date, NO_RANGES);
+            for (int i = 0; i < ranges.length; i += 2) {
+                if (parts.size() > 1) {
+                    parts.add(new ByteArrayInputStream(",".getBytes(StandardCharsets.UTF_8)));
+                }
+                parts.add(new ByteBufferInputStream(this.orders.slice(ranges[i], ranges[i + 1] - ranges[i])));
+            }
+        }
+        parts.add(new ByteArrayInputStream("]".getBytes(StandardCharsets.UTF_8)));
+        Set<String> dateSet = new HashSet<>(dates);
+        return new OrderReader(new SequenceInputStream(Collections.enumeration(parts)), dateSet::contains);
+    }
+
+    @Override
+    public Restaurant[] getRestaurants() {
+        if (this.restaurantsFile == null) {
+            return this.fallback.getRestaurants();
+        }
+        try {
+            return Json.RESTAURANTS.readValue(this.restaurantsFile.toFile());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public NoFlyZones[] getNoFlyZones() {
+        if (this.noFlyZonesFile == null) {
+            return this.fallback.getNoFlyZones();
+        }
+        try {
+            NoFlyZones[] noFlyZones = Json.NO_FLY_ZONES.readValue(this.noFlyZonesFile.toFile());
+            for (NoFlyZones zone : noFlyZones) {
+                zone.compile();
+            }
+            return noFlyZones;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Gets the dates that have orders in the snapshot
+     *
+     * @return set of order dates
+     */
+    public Set<String> getDates() {
+        return Collections.unmodifiableSet(getRangesByDate().keySet());
+    }
+
+    /**
+     * Maps the orders snapshot and builds the date index on first use. For every date the index holds pairs of
+     * start and end offsets; consecutive orders of the same date share one range, so a snapshot sorted by date
+     * has a single range per day.
+     *
+     * @return map of date and its byte ranges
+     */
+    private synchronized Map<String, int[]> getRangesByDate() {
+        if (this.rangesByDate != null) {
+            return this.rangesByDate;
+        }
+        Map<String, List<Integer>> ranges = new HashMap<>();
+        try (FileChannel channel = FileChannel.open(this.ordersFile, StandardOpenOption.READ)) {
+            this.orders = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            try (JsonParser parser = Json.FACTORY.createParser(new ByteBufferInputStream(this.orders.duplicate()))) {
+                if (parser.nextToken() != JsonToken.START_ARRAY) {
+                    throw new IOException("Expected a json array of orders");
+                }
+                String previousDate = null;
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    int start = (int) parser.getTokenLocation().getByteOffset();
+                    String date = null;
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        String field = parser.getCurrentName();
+                        parser.nextToken();
+                        if (field.equals("orderDate")) {
+                            date = parser.getValueAsString();
+                        } else {
+                            parser.skipChildren();
+                        }
+                    }
+                    int end = (int) parser.getCurrentLocation().getByteOffset();
+                    if (date == null) {
+                        previousDate = null;
+                        continue;
+                    }
+                    List<Integer> dayRanges = ranges.computeIfAbsent(date, k -> new ArrayList<>());
+                    if (date.equals(previousDate)) {
+                        dayRanges.set(dayRanges.size() - 1, end);
+                    } else {
+                        dayRanges.add(start);
+                        dayRanges.add(end);
+                    }
+                    previousDate = date;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        Map<String, int[]> rangesByDate = new HashMap<>();
+        ranges.forEach((date, dayRanges) -> rangesByDate.put(date,
+                dayRanges.stream().mapToInt(Integer::intValue).toArray()));
+        this.rangesByDate = rangesByDate;
+        return rangesByDate;
+    }
+
+    /**
+     * A stream reading the remaining bytes of a buffer
+     */
+    private static class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return this.buffer.hasRemaining() ? this.buffer.get() & 0xff : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (!this.buffer.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(length, this.buffer.remaining());
+            this.buffer.get(bytes, offset, count);
+            return count;
+        }
+    }
+}
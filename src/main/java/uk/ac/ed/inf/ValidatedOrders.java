@@ -0,0 +1,115 @@
+package uk.ac.ed.inf;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A class holding the outcome of every order of a day. Each order is validated exactly once; the outcomes are
+ * kept by order number, and delivering an order changes its outcome to {@link OrderOutcome#Delivered}. Outcomes
+ * may be read and marked delivered by several drones at the same time.
+ */
+public class ValidatedOrders {
+    private final List<Order> orders = new ArrayList<>();
+    private final Map<String, OrderOutcome> outcomes = new ConcurrentHashMap<>();
+    private final HashMap<Restaurant, ArrayList<Order>> validOrdersByRestaurant = new HashMap<>();
+
+    private ValidatedOrders() {
+    }
+
+    /**
+     * Validates every order once and groups the valid ones by the restaurant that can fulfill them
+     *
+     * @param restaurants index of the restaurant menus
+     * @param orders      orders to validate
+     * @return validated orders
+     * @throws InvalidPizzaCombinationException if a valid order has no restaurant that can fulfill it
+     */
+    public static ValidatedOrders validate(MenuIndex restaurants, Iterable<Order> orders)
+            throws InvalidPizzaCombinationException {
+        ValidatedOrders validatedOrders = new ValidatedOrders();
+        for (Order order : orders) {
+            validatedOrders.add(restaurants, order);
+        }
+        return validatedOrders;
+    }
+
+    /**
+     * Validates the orders of several days read from one stream, such as all orders of a date range in one
+     * response, and keeps the orders of every day apart
+     *
+     * @param restaurants index of the restaurant menus
+     * @param orders      orders to validate, with their dates in any order
+     * @param dates       dates to keep, orders placed on other dates are skipped
+     * @return map of date and its validated orders, with an entry for every date
+     * @throws InvalidPizzaCombinationException if a valid order has no restaurant that can fulfill it
+     */
+    public static Map<String, ValidatedOrders> validateByDate(MenuIndex restaurants, Iterable<Order> orders,
+                                                              Collection<String> dates)
+            throws InvalidPizzaCombinationException {
+        Map<String, ValidatedOrders> ordersByDate = new HashMap<>();
+        for (String date : dates) {
+            ordersByDate.put(date, new ValidatedOrders());
+        }
+        for (Order order : orders) {
+            ValidatedOrders validatedOrders = ordersByDate.get(order.orderDate);
+            if (validatedOrders != null) {
+                validatedOrders.add(restaurants, order);
+            }
+        }
+        return ordersByDate;
+    }
+
+    /**
+     * Validates an order and adds it with its outcome
+     *
+     * @param restaurants index of the restaurant menus
+     * @param order       order to validate
+     * @throws InvalidPizzaCombinationException if a valid order has no restaurant that can fulfill it
+     */
+    private void add(MenuIndex restaurants, Order order) throws InvalidPizzaCombinationException {
+        OrderOutcome outcome = order.isOrderValid(restaurants);
+        this.orders.add(order);
+        this.outcomes.put(order.orderNo, outcome);
+        if (outcome == OrderOutcome.ValidButNotDelivered) {
+            Restaurant deliveryRestaurant = order.findRestaurant(restaurants, order.orderItems);
+            this.validOrdersByRestaurant.computeIfAbsent(deliveryRestaurant, k -> new ArrayList<>()).add(order);
+        }
+    }
+
+    /**
+     * Gets the valid orders grouped by the restaurant that can fulfill them
+     *
+     * @return Hashmap of a restaurant and its valid orders
+     */
+    public HashMap<Restaurant, ArrayList<Order>> getValidOrdersByRestaurant() {
+        return this.validOrdersByRestaurant;
+    }
+
+    /**
+     * Gets all orders in the order they were validated
+     *
+     * @return list of orders
+     */
+    public List<Order> getOrders() {
+        return Collections.unmodifiableList(this.orders);
+    }
+
+    /**
+     * Gets the outcome of an order
+     *
+     * @param orderNo order number
+     * @return outcome of the order, or null if there is no order with that number
+     */
+    public OrderOutcome getOutcome(String orderNo) {
+        return this.outcomes.get(orderNo);
+    }
+
+    /**
+     * Records that an order has been delivered
+     *
+     * @param order delivered order
+     */
+    public void markDelivered(Order order) {
+        this.outcomes.put(order.orderNo, OrderOutcome.Delivered);
+    }
+}
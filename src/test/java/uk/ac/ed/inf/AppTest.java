@@ -2,7 +2,18 @@ package uk.ac.ed.inf;
 
 import static org.junit.jupiter.api.Assertions.*;
 import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DateTimeException;
 import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import com.fasterxml.jackson.databind.JsonNode;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInfo;
@@ -69,4 +80,128 @@ public class AppTest
         assertTrue(new File(path + "/" + "flightpath-" + date + ".json").exists());
         assertTrue(deliveredOrders.size() > 25);
     }
+    @Test
+    @DisplayName("Testing if the chosen outputs are parsed from the command line option")
+    void testOutputsOption()
+    {
+        assertEquals(EnumSet.allOf(App.Output.class), App.Output.parse("deliveries,flightpath,drone,metrics"));
+        assertEquals(EnumSet.of(App.Output.DELIVERIES, App.Output.DRONE), App.Output.parse(" Drone, deliveries"));
+        assertEquals(EnumSet.noneOf(App.Output.class), App.Output.parse(""));
+        assertThrows(IllegalArgumentException.class, () -> App.Output.parse("deliveries,kml"));
+    }
+    @Test
+    @DisplayName("Testing if single dates and inclusive date ranges are parsed")
+    void testParseDates()
+    {
+        assertEquals(List.of("2023-01-01"), App.parseDates("2023-01-01"));
+        assertEquals(List.of("2023-01-30", "2023-01-31", "2023-02-01"), App.parseDates("2023-01-30..2023-02-01"));
+        assertEquals(List.of("2023-05-31"), App.parseDates("2023-05-31..2023-05-31"));
+        assertEquals(151, App.parseDates("2023-01-01..2023-05-31").size());
+    }
+    @Test
+    @DisplayName("Testing if malformed, reversed and out of window date arguments are rejected")
+    void testParseDatesRejected()
+    {
+        assertThrows(DateTimeException.class, () -> App.parseDates(null));
+        assertThrows(DateTimeException.class, () -> App.parseDates("2023-1-1"));
+        assertThrows(DateTimeException.class, () -> App.parseDates("2023-01-01..2023-01-02..2023-01-03"));
+        assertThrows(DateTimeException.class, () -> App.parseDates("2023-01-01.."));
+        DateTimeException reversed = assertThrows(DateTimeException.class,
+                () -> App.parseDates("2023-01-05..2023-01-01"));
+        assertEquals("Date range ends before it starts", reversed.getMessage());
+        for (String argument : List.of("2022-12-31", "2023-06-01", "2023-05-30..2023-06-02",
+                "2022-12-31..2023-01-02")) {
+            DateTimeException outOfWindow = assertThrows(DateTimeException.class, () -> App.parseDates(argument));
+            assertEquals("Date out of range", outOfWindow.getMessage());
+        }
+    }
+    @Test
+    @DisplayName("Testing if the orders are requested while the restaurants are still on their way")
+    void testRequestsInFlightTogether() throws Exception
+    {
+        SnapshotDataSource snapshots = new SnapshotDataSource(Path.of("orders"),
+                Path.of(getClass().getResource("/restaurants.json").toURI()),
+                Path.of(getClass().getResource("/noFlyZones.json").toURI()), null);
+        CountDownLatch ordersRequested = new CountDownLatch(1);
+        AtomicBoolean ordersBeforeRestaurants = new AtomicBoolean();
+        DataSource dataSource = new DataSource() {
+            @Override
+            public OrderReader openOrders(String date) {
+                return openOrders(List.of(date));
+            }
+            @Override
+            public OrderReader openOrders(List<String> dates) {
+                ordersRequested.countDown();
+                return snapshots.openOrders(dates);
+            }
+            @Override
+            public Restaurant[] getRestaurants() {
+                try {
+                    // the restaurants only arrive once the orders have been requested
+                    ordersBeforeRestaurants.set(ordersRequested.await(10, TimeUnit.SECONDS));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return snapshots.getRestaurants();
+            }
+            @Override
+            public NoFlyZones[] getNoFlyZones() {
+                return snapshots.getNoFlyZones();
+            }
+        };
+        List<String> dates = List.of("2023-01-01", "2023-01-02");
+        RunMetrics metrics = new RunMetrics();
+        App.Requests requests = App.startRequests(dataSource, dates, metrics);
+        Map<String, ValidatedOrders> ordersByDate = requests.orders().get(30, TimeUnit.SECONDS);
+        assertTrue(ordersBeforeRestaurants.get());
+        for (String date : dates) {
+            assertEquals(snapshots.getOrders(date).length, ordersByDate.get(date).getOrders().size());
+        }
+        assertTrue(metrics.getPhaseMillis().containsKey("fetchOrders"));
+        assertTrue(metrics.getPhaseMillis().containsKey("validation"));
+    }
+    @Test
+    @DisplayName("Testing if a two-day run over the snapshots writes the files of each day")
+    void testTwoDaySnapshotRun() throws Exception
+    {
+        List<String> dates = List.of("2023-01-01", "2023-01-02");
+        List<Path> files = new ArrayList<>();
+        for (String date : dates) {
+            files.add(Path.of("deliveries-" + date + ".json"));
+            files.add(Path.of("metrics-" + date + ".json"));
+        }
+        try {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+            App.main(new String[]{"2023-01-01..2023-01-02", "http://localhost/", "--orders-file=orders",
+                    "--restaurants-file=" + Path.of(getClass().getResource("/restaurants.json").toURI()),
+                    "--no-fly-zones-file=" + Path.of(getClass().getResource("/noFlyZones.json").toURI()),
+                    "--path-cache=none", "--outputs=deliveries,metrics", "--threads=2"});
+            for (String date : dates) {
+                Order[] orders = Order.getOrdersFromFile(Path.of("orders"), date);
+                JsonNode deliveries = Json.MAPPER.readTree(Path.of("deliveries-" + date + ".json").toFile());
+                assertEquals(orders.length, deliveries.size());
+                for (int i = 0; i < orders.length; i++) {
+                    assertEquals(orders[i].orderNo, deliveries.get(i).get("orderNo").asText());
+                }
+                JsonNode metrics = Json.MAPPER.readTree(Path.of("metrics-" + date + ".json").toFile());
+                assertEquals(date, metrics.get("date").asText());
+                long outcomes = 0;
+                Iterator<Map.Entry<String, JsonNode>> counters = metrics.get("counters").fields();
+                while (counters.hasNext()) {
+                    Map.Entry<String, JsonNode> counter = counters.next();
+                    if (counter.getKey().startsWith("orders.")) {
+                        outcomes += counter.getValue().asLong();
+                    }
+                }
+                assertEquals(orders.length, outcomes);
+                assertTrue(metrics.get("counters").get("orders.Delivered").asLong() > 0);
+            }
+        } finally {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
 }
@@ -0,0 +1,94 @@
+package uk.ac.ed.inf;
+
+import static org.junit.jupiter.api.Assertions.*;
+import java.nio.file.Path;
+import java.util.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+import org.junit.jupiter.api.DisplayName;
+
+public class DeliverySchedulerTest
+{
+    Restaurant near;
+    Restaurant far;
+    ArrayList<Map.Entry<Restaurant, Integer>> restaurantsByDistance;
+
+    @BeforeEach
+    void display(TestInfo info)
+    {
+        System.out.println(info.getDisplayName());
+        near = new Restaurant();
+        near.name = "Near";
+        far = new Restaurant();
+        far.name = "Far";
+        restaurantsByDistance = new ArrayList<>();
+        restaurantsByDistance.add(new AbstractMap.SimpleEntry<>(near, 10));
+        restaurantsByDistance.add(new AbstractMap.SimpleEntry<>(far, 12));
+    }
+    Order order(String orderNo, int price)
+    {
+        return new Order(orderNo, "2023-01-01", "Bill", "2720992980684610", "01/32", "453", price,
+                new String[]{"Margarita"});
+    }
+    HashMap<Restaurant, ArrayList<Order>> orders()
+    {
+        HashMap<Restaurant, ArrayList<Order>> orders = new HashMap<>();
+        orders.put(near, new ArrayList<>(List.of(order("1", 100), order("2", 100), order("3", 100))));
+        orders.put(far, new ArrayList<>(List.of(order("4", 1000), order("5", 1000))));
+        return orders;
+    }
+    int revenue(List<DeliveryScheduler.Delivery> deliveries)
+    {
+        int revenue = 0;
+        for (DeliveryScheduler.Delivery delivery : deliveries) {
+            revenue += delivery.order().priceTotalInPence;
+        }
+        return revenue;
+    }
+    @Test
+    @DisplayName("Testing if leftover charge is used for more valuable orders")
+    void testKnapsackUsesLeftoverCharge()
+    {
+        List<DeliveryScheduler.Delivery> closest = new ClosestFirstScheduler().schedule(orders(),
+                restaurantsByDistance, 34);
+        List<DeliveryScheduler.Delivery> knapsack = new KnapsackScheduler().schedule(orders(),
+                restaurantsByDistance, 34);
+        assertEquals(3, closest.size());
+        assertEquals(300, revenue(closest));
+        assertEquals(3, knapsack.size());
+        assertEquals(2100, revenue(knapsack));
+        assertSame(near, knapsack.get(0).restaurant());
+        assertSame(far, knapsack.get(1).restaurant());
+    }
+    @Test
+    @DisplayName("Testing if the number of orders is never lower than closest-first")
+    void testNeverFewerOrders()
+    {
+        for (int charge = 0; charge <= 60; charge++) {
+            HashMap<Restaurant, ArrayList<Order>> orders = orders();
+            List<DeliveryScheduler.Delivery> closest = new ClosestFirstScheduler().schedule(orders,
+                    restaurantsByDistance, charge);
+            List<DeliveryScheduler.Delivery> knapsack = new KnapsackScheduler().schedule(orders,
+                    restaurantsByDistance, charge);
+            assertEquals(closest.size(), knapsack.size());
+            assertTrue(revenue(knapsack) >= revenue(closest));
+            assertEquals(3, orders.get(near).size());
+        }
+    }
+    @Test
+    @DisplayName("Testing if a day of snapshot orders fits the battery and falls back when out of time")
+    void testSnapshotDay()
+    {
+        HashMap<Restaurant, ArrayList<Order>> orders = new HashMap<>();
+        ArrayList<Order> nearOrders = new ArrayList<>(Arrays.asList(Order.getOrdersFromFile(Path.of("orders"), null)));
+        orders.put(near, nearOrders);
+        restaurantsByDistance.set(0, new AbstractMap.SimpleEntry<>(near, 137));
+        List<DeliveryScheduler.Delivery> knapsack = new KnapsackScheduler().schedule(orders,
+                restaurantsByDistance, 2000);
+        assertEquals(2000 / 137, knapsack.size());
+        List<DeliveryScheduler.Delivery> fallback = new KnapsackScheduler(0).schedule(orders,
+                restaurantsByDistance, 2000);
+        assertEquals(new ClosestFirstScheduler().schedule(orders, restaurantsByDistance, 2000), fallback);
+    }
+}
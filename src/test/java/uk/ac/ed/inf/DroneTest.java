@@ -0,0 +1,101 @@
+package uk.ac.ed.inf;
+
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+import org.junit.jupiter.api.DisplayName;
+
+public class DroneTest
+{
+    LngLat startCoordinates = new LngLat(-3.186874, 55.944494);
+    MenuIndex menuIndex;
+    HashMap<Restaurant, ArrayList<DronePath>> restaurantPaths;
+    ArrayList<Map.Entry<Restaurant, Integer>> restaurantsByDistance;
+    Drone drone = new Drone(Clock.fixed(Instant.parse("2023-01-01T00:00:00Z"), ZoneOffset.UTC));
+
+    @BeforeEach
+    void display(TestInfo info) throws IOException
+    {
+        System.out.println(info.getDisplayName());
+        ObjectMapper mapper = new ObjectMapper();
+        Restaurant[] restaurants = mapper.readValue(getClass().getResource("/restaurants.json"), Restaurant[].class);
+        NoFlyZones[] noFlyZones = mapper.readValue(getClass().getResource("/noFlyZones.json"), NoFlyZones[].class);
+        menuIndex = new MenuIndex(restaurants);
+        restaurantPaths = Drone.GreedyAlgorithm(restaurants, startCoordinates, noFlyZones);
+        restaurantsByDistance = Restaurant.getRestaurantsByDistance(restaurantPaths, restaurants);
+    }
+    byte[] flyDay(HashMap<Restaurant, ArrayList<Order>> validOrders)
+    {
+        FlightLog log = new FlightLog();
+        drone.performDelivery(log, restaurantPaths, validOrders, restaurantsByDistance);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (FlightPathWriter writer = new FlightPathWriter(out)) {
+            writer.writeLog(log);
+        }
+        return out.toByteArray();
+    }
+    @Test
+    @DisplayName("Testing if concurrent deliveries write the same flight paths as sequential ones")
+    void testConcurrentDeliveriesMatchSequential() throws Exception
+    {
+        List<HashMap<Restaurant, ArrayList<Order>>> days = new ArrayList<>();
+        for (int day = 1; day <= 16; day++) {
+            String date = String.format("2023-01-%02d", day);
+            Order[] orders = Order.getOrdersFromFile(Path.of("orders"), date);
+            days.add(ValidatedOrders.validate(menuIndex, Arrays.asList(orders)).getValidOrdersByRestaurant());
+        }
+        List<byte[]> sequential = new ArrayList<>();
+        for (HashMap<Restaurant, ArrayList<Order>> day : days) {
+            sequential.add(flyDay(day));
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            for (int round = 0; round < 4; round++) {
+                List<Future<byte[]>> concurrent = new ArrayList<>();
+                for (HashMap<Restaurant, ArrayList<Order>> day : days) {
+                    concurrent.add(executor.submit(() -> flyDay(day)));
+                }
+                for (int i = 0; i < days.size(); i++) {
+                    assertArrayEquals(sequential.get(i), concurrent.get(i).get());
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+    @Test
+    @DisplayName("Testing if delivering leaves the valid orders unchanged")
+    void testInputsAreNotChanged() throws InvalidPizzaCombinationException
+    {
+        Order[] orders = Order.getOrdersFromFile(Path.of("orders"), "2023-01-01");
+        HashMap<Restaurant, ArrayList<Order>> validOrders = ValidatedOrders.validate(menuIndex,
+                Arrays.asList(orders)).getValidOrdersByRestaurant();
+        int validCount = 0;
+        for (ArrayList<Order> restaurantOrders : validOrders.values()) {
+            validCount += restaurantOrders.size();
+        }
+        FlightLog log = new FlightLog();
+        ArrayList<Order> completed = drone.performDelivery(log, restaurantPaths, validOrders, restaurantsByDistance);
+        int remaining = 0;
+        for (ArrayList<Order> restaurantOrders : validOrders.values()) {
+            remaining += restaurantOrders.size();
+        }
+        assertEquals(validCount, remaining);
+        assertEquals(validCount, completed.size());
+        assertEquals(0, log.getTicks(0));
+        assertEquals(log.size() - 1, log.getTicks(log.size() - 1));
+        assertEquals(completed.get(0).orderNo, log.getOrderNumber(0));
+    }
+}
@@ -0,0 +1,72 @@
+package uk.ac.ed.inf;
+
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.*;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+import org.junit.jupiter.api.DisplayName;
+
+public class FleetTest
+{
+    LngLat startCoordinates = new LngLat(-3.186874, 55.944494);
+    HashMap<Restaurant, ArrayList<DronePath>> restaurantPaths;
+    ArrayList<Map.Entry<Restaurant, Integer>> restaurantsByDistance;
+    ValidatedOrders validatedOrders;
+    int validCount;
+
+    @BeforeEach
+    void display(TestInfo info) throws IOException, InvalidPizzaCombinationException
+    {
+        System.out.println(info.getDisplayName());
+        ObjectMapper mapper = new ObjectMapper();
+        Restaurant[] restaurants = mapper.readValue(getClass().getResource("/restaurants.json"), Restaurant[].class);
+        NoFlyZones[] noFlyZones = mapper.readValue(getClass().getResource("/noFlyZones.json"), NoFlyZones[].class);
+        restaurantPaths = Drone.GreedyAlgorithm(restaurants, startCoordinates, noFlyZones);
+        restaurantsByDistance = Restaurant.getRestaurantsByDistance(restaurantPaths, restaurants);
+        // every order of the snapshot as one busy day
+        validatedOrders = ValidatedOrders.validate(new MenuIndex(restaurants),
+                Arrays.asList(Order.getOrdersFromFile(Path.of("orders"), null)));
+        validCount = 0;
+        for (ArrayList<Order> orders : validatedOrders.getValidOrdersByRestaurant().values()) {
+            validCount += orders.size();
+        }
+    }
+    int deliver(int drones)
+    {
+        OrderDispatcher dispatcher = new OrderDispatcher(validatedOrders.getValidOrdersByRestaurant(),
+                restaurantsByDistance);
+        List<Fleet.DroneRun> runs = new Fleet(drones).performDelivery(restaurantPaths, dispatcher, validatedOrders);
+        assertEquals(drones, runs.size());
+        Set<String> delivered = new HashSet<>();
+        for (Fleet.DroneRun run : runs) {
+            assertTrue(run.flightLog().size() <= Drone.BATTERY_CHARGE);
+            for (Order order : run.completedOrders()) {
+                assertTrue(delivered.add(order.orderNo));
+                assertEquals(OrderOutcome.Delivered, validatedOrders.getOutcome(order.orderNo));
+            }
+        }
+        return delivered.size();
+    }
+    @Test
+    @DisplayName("Testing if a fleet of one delivers as many orders as a single drone")
+    void testSingleDroneFleet()
+    {
+        ArrayList<Order> single = new Drone().performDelivery(new FlightLog(), restaurantPaths,
+                validatedOrders.getValidOrdersByRestaurant(), restaurantsByDistance, new ClosestFirstScheduler());
+        assertEquals(single.size(), deliver(1));
+    }
+    @Test
+    @DisplayName("Testing if more drones deliver more orders without delivering any twice")
+    void testThroughputScales()
+    {
+        int one = deliver(1);
+        int four = deliver(4);
+        assertTrue(four > one);
+        assertTrue(four <= validCount);
+        assertEquals(validCount, deliver(100));
+    }
+}
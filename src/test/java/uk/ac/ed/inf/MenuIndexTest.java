@@ -0,0 +1,68 @@
+package uk.ac.ed.inf;
+
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.IOException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+import org.junit.jupiter.api.DisplayName;
+
+public class MenuIndexTest
+{
+    Restaurant[] restaurants;
+    MenuIndex menuIndex;
+
+    @BeforeEach
+    void display(TestInfo info) throws IOException
+    {
+        System.out.println(info.getDisplayName());
+        restaurants = new ObjectMapper().readValue(getClass().getResource("/restaurants.json"), Restaurant[].class);
+        menuIndex = new MenuIndex(restaurants);
+    }
+    @Test
+    @DisplayName("Testing if the supplying restaurant and cost are found")
+    void testRestaurantAndCost() throws InvalidPizzaCombinationException
+    {
+        Order order = new Order("1", "2023-02-01", "Bill", "2720992980684610",
+                "01/32", "453", 2600, new String[]{"Meat Lover", "Vegan Delight"});
+        assertSame(restaurants[1], order.findRestaurant(menuIndex, order.orderItems));
+        assertEquals(2600, order.getDeliveryCost(menuIndex, order.orderItems));
+        assertEquals(OrderOutcome.ValidButNotDelivered, order.isOrderValid(menuIndex));
+    }
+    @Test
+    @DisplayName("Testing pizzas from several restaurants and undefined pizzas")
+    void testInvalidPizzas()
+    {
+        Order multipleSuppliers = new Order("2", "2023-02-01", "Bill", "2720992980684610",
+                "01/32", "453", 2500, new String[]{"Margarita", "Meat Lover"});
+        assertThrows(InvalidPizzaCombinationException.class,
+                () -> multipleSuppliers.findRestaurant(menuIndex, multipleSuppliers.orderItems));
+        assertEquals(OrderOutcome.Invalid, multipleSuppliers.isOrderValid(menuIndex));
+        Order undefined = new Order("3", "2023-02-01", "Bill", "2720992980684610",
+                "01/32", "453", 2500, new String[]{"Pizza-Surprise -498702880"});
+        assertEquals(OrderOutcome.InvalidPizzaNotDefined, undefined.isOrderValid(menuIndex));
+    }
+    @Test
+    @DisplayName("Testing if the menu array is a copy that follows changes of the menu")
+    void testMenuArrayIsCopy()
+    {
+        Menu[] menu = restaurants[0].getMenu();
+        assertEquals(2, menu.length);
+        menu[0] = null;
+        assertNotNull(restaurants[0].getMenu()[0]);
+        Menu replaced = restaurants[0].menu.get(1);
+        restaurants[0].menu.set(0, replaced);
+        assertSame(replaced, restaurants[0].getMenu()[0]);
+    }
+    @Test
+    @DisplayName("Testing if an index is not changed by later changes of the restaurant array")
+    void testIndexKeepsRestaurants() throws InvalidPizzaCombinationException
+    {
+        Restaurant first = restaurants[0];
+        String pizza = first.getMenu()[0].name;
+        restaurants[0] = restaurants[1];
+        assertSame(first, menuIndex.getRestaurants()[0]);
+        assertSame(first, menuIndex.findRestaurant(pizza));
+    }
+}
@@ -0,0 +1,46 @@
+package uk.ac.ed.inf;
+
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.IOException;
+import java.util.Random;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+import org.junit.jupiter.api.DisplayName;
+
+public class NoFlyZoneIndexTest
+{
+    NoFlyZones[] noFlyZones;
+
+    @BeforeEach
+    void display(TestInfo info) throws IOException
+    {
+        System.out.println(info.getDisplayName());
+        noFlyZones = new ObjectMapper().readValue(getClass().getResource("/noFlyZones.json"), NoFlyZones[].class);
+    }
+    @Test
+    @DisplayName("Testing if the index agrees with the zone checks on every zone")
+    void testIndexMatchesZoneChecks()
+    {
+        NoFlyZoneIndex index = new NoFlyZoneIndex(noFlyZones);
+        Random random = new Random(42);
+        for (int i = 0; i < 20000; i++) {
+            LngLat position = new LngLat(-3.192 + random.nextDouble() * 0.007,
+                    55.942 + random.nextDouble() * 0.004);
+            LngLat nextPosition = position.nextPosition(Drone.Compass.values()[random.nextInt(16)].angle);
+            assertEquals(position.isDroneInNoFlyZone(noFlyZones), position.isDroneInNoFlyZone(index));
+            assertEquals(position.isDronePassingNoFlyZone(noFlyZones, nextPosition),
+                    position.isDronePassingNoFlyZone(index, nextPosition));
+        }
+    }
+    @Test
+    @DisplayName("Testing the index with no zones")
+    void testEmptyIndex()
+    {
+        NoFlyZoneIndex index = new NoFlyZoneIndex(new NoFlyZones[0]);
+        LngLat position = new LngLat(-3.186874, 55.944494);
+        assertFalse(position.isDroneInNoFlyZone(index));
+        assertFalse(position.isDronePassingNoFlyZone(index, position.nextPosition(0.0)));
+    }
+}
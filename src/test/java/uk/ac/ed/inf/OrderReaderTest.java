@@ -0,0 +1,63 @@
+package uk.ac.ed.inf;
+
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+import org.junit.jupiter.api.DisplayName;
+
+public class OrderReaderTest
+{
+    @BeforeEach
+    void display(TestInfo info)
+    {
+        System.out.println(info.getDisplayName());
+    }
+    @Test
+    @DisplayName("Testing if streamed orders match the orders snapshot")
+    void testSnapshotMatchesDatabind() throws IOException
+    {
+        Order[] expected = new ObjectMapper().readValue(Path.of("orders").toFile(), Order[].class);
+        Order[] streamed = Order.getOrdersFromFile(Path.of("orders"), null);
+        assertEquals(expected.length, streamed.length);
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i].orderNo, streamed[i].orderNo);
+            assertEquals(expected[i].orderDate, streamed[i].orderDate);
+            assertEquals(expected[i].customer, streamed[i].customer);
+            assertEquals(expected[i].creditCardNumber, streamed[i].creditCardNumber);
+            assertEquals(expected[i].creditCardExpiry, streamed[i].creditCardExpiry);
+            assertEquals(expected[i].cvv, streamed[i].cvv);
+            assertEquals(expected[i].priceTotalInPence, streamed[i].priceTotalInPence);
+            assertArrayEquals(expected[i].orderItems, streamed[i].orderItems);
+        }
+    }
+    @Test
+    @DisplayName("Testing if the date filter only keeps orders of that day")
+    void testDateFilter()
+    {
+        Order[] orders = Order.getOrdersFromFile(Path.of("orders"), "2023-01-02");
+        assertEquals(9, orders.length);
+        for (Order order : orders) {
+            assertEquals("2023-01-02", order.orderDate);
+        }
+    }
+    @Test
+    @DisplayName("Testing if fields in any order and unknown fields are handled")
+    void testFieldOrder()
+    {
+        String json = "[{\"extra\":{\"a\":[1,2]},\"orderDate\":\"2023-01-05\",\"orderNo\":\"A\"},"
+                + "{\"orderItems\":[\"Margarita\"],\"orderNo\":\"B\",\"orderDate\":\"2023-01-04\",\"cvv\":\"123\"}]";
+        OrderReader reader = new OrderReader(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)),
+                "2023-01-04"::equals);
+        Order[] orders = reader.readAll();
+        assertEquals(1, orders.length);
+        assertEquals("B", orders[0].orderNo);
+        assertEquals("123", orders[0].cvv);
+        assertArrayEquals(new String[]{"Margarita"}, orders[0].orderItems);
+    }
+}
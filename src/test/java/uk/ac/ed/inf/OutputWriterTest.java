@@ -0,0 +1,102 @@
+package uk.ac.ed.inf;
+
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+import org.junit.jupiter.api.DisplayName;
+
+public class OutputWriterTest
+{
+    @BeforeEach
+    void display(TestInfo info)
+    {
+        System.out.println(info.getDisplayName());
+    }
+    @Test
+    @DisplayName("Testing if flight path moves from the flight log have every field")
+    void testFlightPathWriter() throws IOException
+    {
+        LngLat start = new LngLat(-3.186874, 55.944494);
+        FlightLog log = new FlightLog();
+        int order = log.addOrder("1AFFE082");
+        log.addMove(order, new DronePath(90.0, start, start.nextPosition(90.0)), 7);
+        log.addMove(order, new DronePath(null, start, start), 8);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (FlightPathWriter writer = new FlightPathWriter(out)) {
+            writer.writeLog(log);
+        }
+        JsonNode moves = new ObjectMapper().readTree(out.toByteArray());
+        assertEquals(2, moves.size());
+        assertEquals("1AFFE082", moves.get(0).get("orderNo").asText());
+        assertEquals(start.lng(), moves.get(0).get("fromLongitude").asDouble());
+        assertEquals(start.lat(), moves.get(0).get("fromLatitude").asDouble());
+        assertEquals(90.0, moves.get(0).get("angle").asDouble());
+        assertEquals(start.nextPosition(90.0).lng(), moves.get(0).get("toLongitude").asDouble());
+        assertEquals(start.nextPosition(90.0).lat(), moves.get(0).get("toLatitude").asDouble());
+        assertEquals(7, moves.get(0).get("ticksSinceStartOfCalculation").asInt());
+        assertTrue(moves.get(1).get("angle").isNull());
+    }
+    @Test
+    @DisplayName("Testing if the flight log keeps moves across chunks")
+    void testFlightLogChunks()
+    {
+        FlightLog log = new FlightLog();
+        int first = log.addOrder("1AFFE082");
+        int second = log.addOrder("2BFFE082");
+        assertEquals(first, log.addOrder("1AFFE082"));
+        for (int i = 0; i < 10000; i++) {
+            log.addMove(i % 2 == 0 ? first : second, i, -i, i % 3 == 0 ? Float.NaN : 22.5f, i + 1, -i - 1, i);
+        }
+        assertEquals(10000, log.size());
+        assertEquals("2BFFE082", log.getOrderNumber(9999));
+        assertEquals(9999.0, log.getFromLongitude(9999));
+        assertEquals(-9999.0, log.getFromLatitude(9999));
+        assertEquals(10000.0, log.getToLongitude(9999));
+        assertEquals(-10000.0, log.getToLatitude(9999));
+        assertTrue(Float.isNaN(log.getAngle(9999)));
+        assertEquals(22.5f, log.getAngle(4097));
+        assertEquals(4097, log.getTicks(4097));
+    }
+    @Test
+    @DisplayName("Testing if the geojson line holds every position of the flight log")
+    void testGeoJsonWriter() throws IOException
+    {
+        LngLat start = new LngLat(-3.186874, 55.944494);
+        LngLat next = start.nextPosition(90.0);
+        FlightLog log = new FlightLog();
+        int order = log.addOrder("1AFFE082");
+        log.addMove(order, new DronePath(90.0, start, next), 1);
+        log.addMove(order, new DronePath(null, next, next), 2);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        GeoJsonWriter.write(log, out);
+        JsonNode geoJson = new ObjectMapper().readTree(out.toByteArray());
+        assertEquals("FeatureCollection", geoJson.get("type").asText());
+        JsonNode geometry = geoJson.get("features").get(0).get("geometry");
+        assertEquals("LineString", geometry.get("type").asText());
+        JsonNode coordinates = geometry.get("coordinates");
+        assertEquals(3, coordinates.size());
+        assertEquals(start.lng(), coordinates.get(0).get(0).asDouble());
+        assertEquals(next.lat(), coordinates.get(2).get(1).asDouble());
+    }
+    @Test
+    @DisplayName("Testing if streamed order outcomes have every field")
+    void testOrderOutcomeWriter() throws IOException
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (OrderOutcomeWriter writer = new OrderOutcomeWriter(out)) {
+            writer.writeOutcome("1AFFE082", OrderOutcome.Delivered, 2400);
+            writer.writeOutcome("2BFFE082", OrderOutcome.InvalidCvv, 0);
+        }
+        JsonNode outcomes = new ObjectMapper().readTree(out.toByteArray());
+        assertEquals(2, outcomes.size());
+        assertEquals("1AFFE082", outcomes.get(0).get("orderNo").asText());
+        assertEquals("Delivered", outcomes.get(0).get("outcome").asText());
+        assertEquals(2400, outcomes.get(0).get("costInPence").asInt());
+        assertEquals("InvalidCvv", outcomes.get(1).get("outcome").asText());
+    }
+}
@@ -0,0 +1,175 @@
+package uk.ac.ed.inf;
+
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+
+public class PathCacheTest
+{
+    LngLat startCoordinates = new LngLat(-3.186874, 55.944494);
+    LngLat target = new LngLat(-3.1912869215011597, 55.945535152517735);
+    NoFlyZones[] noFlyZones;
+
+    @TempDir
+    Path directory;
+
+    @BeforeEach
+    void display(TestInfo info) throws IOException
+    {
+        System.out.println(info.getDisplayName());
+        noFlyZones = new ObjectMapper().readValue(getClass().getResource("/noFlyZones.json"), NoFlyZones[].class);
+    }
+    @Test
+    @DisplayName("Testing if a saved path is loaded again unchanged")
+    void testSaveAndLoad()
+    {
+        ArrayList<DronePath> path = PathfindingAlgorithm.GREEDY.findPath(startCoordinates, target,
+                new NoFlyZoneIndex(noFlyZones));
+        String key = PathCache.key(PathfindingAlgorithm.GREEDY, startCoordinates, target,
+                PathCache.hashNoFlyZones(noFlyZones));
+        PathCache cache = new PathCache(directory.resolve("paths.cache"));
+        cache.put(key, path);
+        cache.save();
+
+        ArrayList<DronePath> loaded = new PathCache(directory.resolve("paths.cache")).get(key);
+        assertNotNull(loaded);
+        assertEquals(path.size(), loaded.size());
+        for (int i = 0; i < path.size(); i++) {
+            assertEquals(path.get(i).getAngle(), loaded.get(i).getAngle());
+            assertEquals(path.get(i).startLongitude, loaded.get(i).startLongitude);
+            assertEquals(path.get(i).startLatitude, loaded.get(i).startLatitude);
+            assertEquals(path.get(i).endLongitude, loaded.get(i).endLongitude);
+            assertEquals(path.get(i).endLatitude, loaded.get(i).endLatitude);
+        }
+    }
+    @Test
+    @DisplayName("Testing if moving a no-fly zone or a restaurant changes the key")
+    void testKeyChangesWithInputs()
+    {
+        byte[] zoneHash = PathCache.hashNoFlyZones(noFlyZones);
+        String key = PathCache.key(PathfindingAlgorithm.GREEDY, startCoordinates, target, zoneHash);
+        assertEquals(key, PathCache.key(PathfindingAlgorithm.GREEDY, startCoordinates, target,
+                PathCache.hashNoFlyZones(noFlyZones)));
+        assertNotEquals(key, PathCache.key(PathfindingAlgorithm.GREEDY, startCoordinates,
+                new LngLat(target.lng(), target.lat() + 0.0001), zoneHash));
+        assertNotEquals(key, PathCache.key(PathfindingAlgorithm.A_STAR, startCoordinates, target, zoneHash));
+
+        noFlyZones[0].coordinates.set(0, List.of(-3.1906, 55.9440));
+        noFlyZones[0].compile();
+        assertNotEquals(key, PathCache.key(PathfindingAlgorithm.GREEDY, startCoordinates, target,
+                PathCache.hashNoFlyZones(noFlyZones)));
+    }
+    @Test
+    @DisplayName("Testing if paths reused after a zone change are cached under the changed zones")
+    void testReusedPathsCachedAfterZoneChange() throws IOException
+    {
+        Restaurant[] restaurants = new ObjectMapper().readValue(getClass().getResource("/restaurants.json"),
+                Restaurant[].class);
+        NoFlyZones farZone = new NoFlyZones();
+        farZone.name = "Far away";
+        farZone.coordinates = List.of(List.of(-3.17, 55.96), List.of(-3.169, 55.96), List.of(-3.169, 55.961),
+                List.of(-3.17, 55.961), List.of(-3.17, 55.96));
+        NoFlyZones[] changed = Arrays.copyOf(noFlyZones, noFlyZones.length + 1);
+        changed[noFlyZones.length] = farZone;
+        Path file = directory.resolve("paths.cache");
+        try (RoutePlanner planner = new RoutePlanner(PathfindingAlgorithm.GREEDY, 2, new PathCache(file))) {
+            planner.planRestaurantPaths(restaurants, startCoordinates, new NoFlyZoneIndex(noFlyZones));
+            planner.planRestaurantPaths(restaurants, startCoordinates, new NoFlyZoneIndex(changed));
+            assertEquals(0, planner.getPathsPlanned());
+        }
+
+        PathCache cache = new PathCache(file);
+        byte[] oldHash = PathCache.hashNoFlyZones(noFlyZones);
+        byte[] newHash = PathCache.hashNoFlyZones(changed);
+        for (Restaurant restaurant : restaurants) {
+            LngLat restaurantPosition = new LngLat(restaurant.longitude, restaurant.latitude);
+            assertNotNull(cache.get(PathCache.key(PathfindingAlgorithm.GREEDY, startCoordinates,
+                    restaurantPosition, newHash)));
+            assertNull(cache.get(PathCache.key(PathfindingAlgorithm.GREEDY, startCoordinates,
+                    restaurantPosition, oldHash)));
+        }
+    }
+    @Test
+    @DisplayName("Testing if a warm run loads the optimised paths instead of optimising them again")
+    void testOptimisedPathsCached() throws IOException
+    {
+        Restaurant[] restaurants = new ObjectMapper().readValue(getClass().getResource("/restaurants.json"),
+                Restaurant[].class);
+        Path file = directory.resolve("paths.cache");
+        HashMap<Restaurant, ArrayList<DronePath>> coldPaths;
+        try (RoutePlanner planner = new RoutePlanner(PathfindingAlgorithm.GREEDY, 2, new PathCache(file), true)) {
+            coldPaths = planner.planRestaurantPaths(restaurants, startCoordinates, new NoFlyZoneIndex(noFlyZones));
+        }
+
+        PathCache cache = new PathCache(file);
+        byte[] zoneHash = PathCache.hashNoFlyZones(noFlyZones);
+        for (Restaurant restaurant : restaurants) {
+            LngLat restaurantPosition = new LngLat(restaurant.longitude, restaurant.latitude);
+            ArrayList<DronePath> optimised = cache.get(PathCache.key(PathfindingAlgorithm.GREEDY, startCoordinates,
+                    restaurantPosition, zoneHash, true));
+            assertNotNull(optimised);
+            assertSameMoves(coldPaths.get(restaurant), Drone.buildRoundTrip(optimised, startCoordinates));
+        }
+        try (RoutePlanner planner = new RoutePlanner(PathfindingAlgorithm.GREEDY, 2, cache, true)) {
+            HashMap<Restaurant, ArrayList<DronePath>> warmPaths = planner.planRestaurantPaths(restaurants,
+                    startCoordinates, new NoFlyZoneIndex(noFlyZones));
+            for (Restaurant restaurant : restaurants) {
+                assertSameMoves(coldPaths.get(restaurant), warmPaths.get(restaurant));
+            }
+        }
+    }
+    void assertSameMoves(ArrayList<DronePath> expected, ArrayList<DronePath> actual)
+    {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getAngle(), actual.get(i).getAngle());
+            assertEquals(expected.get(i).endLongitude, actual.get(i).endLongitude);
+            assertEquals(expected.get(i).endLatitude, actual.get(i).endLatitude);
+        }
+    }
+    @Test
+    @DisplayName("Testing if a truncated or corrupt cache file is loaded as an empty cache")
+    void testMalformedFileIsEmptyCache() throws IOException
+    {
+        ArrayList<DronePath> path = PathfindingAlgorithm.GREEDY.findPath(startCoordinates, target,
+                new NoFlyZoneIndex(noFlyZones));
+        String key = PathCache.key(PathfindingAlgorithm.GREEDY, startCoordinates, target,
+                PathCache.hashNoFlyZones(noFlyZones));
+        Path file = directory.resolve("paths.cache");
+        PathCache cache = new PathCache(file);
+        cache.put(key, path);
+        cache.save();
+        byte[] saved = Files.readAllBytes(file);
+        // header, entry count, key, move count and start position come before the first direction
+        int moveCountOffset = 4 + 4 + 4 + 2 + key.length();
+        int directionOffset = moveCountOffset + 4 + 16;
+
+        Files.write(file, Arrays.copyOf(saved, saved.length / 2));
+        assertNull(new PathCache(file).get(key));
+
+        byte[] badDirection = saved.clone();
+        badDirection[directionOffset] = 99;
+        Files.write(file, badDirection);
+        assertNull(new PathCache(file).get(key));
+
+        byte[] badMoveCount = saved.clone();
+        ByteBuffer.wrap(badMoveCount).putInt(moveCountOffset, -1);
+        Files.write(file, badMoveCount);
+        assertNull(new PathCache(file).get(key));
+
+        Files.write(file, saved);
+        assertNotNull(new PathCache(file).get(key));
+    }
+}
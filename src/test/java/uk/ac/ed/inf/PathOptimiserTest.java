@@ -0,0 +1,86 @@
+package uk.ac.ed.inf;
+
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.IOException;
+import java.util.ArrayList;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+import org.junit.jupiter.api.DisplayName;
+
+public class PathOptimiserTest
+{
+    LngLat startCoordinates = new LngLat(-3.186874, 55.944494);
+    Restaurant[] restaurants;
+    NoFlyZones[] noFlyZones;
+
+    @BeforeEach
+    void display(TestInfo info) throws IOException
+    {
+        System.out.println(info.getDisplayName());
+        ObjectMapper mapper = new ObjectMapper();
+        restaurants = mapper.readValue(getClass().getResource("/restaurants.json"), Restaurant[].class);
+        noFlyZones = mapper.readValue(getClass().getResource("/noFlyZones.json"), NoFlyZones[].class);
+    }
+    void assertValidPath(ArrayList<DronePath> path, LngLat start, LngLat target)
+    {
+        LngLat position = start;
+        for (DronePath move : path) {
+            LngLat from = new LngLat(move.startLongitude, move.startLatitude);
+            LngLat to = new LngLat(move.endLongitude, move.endLatitude);
+            assertEquals(position, from);
+            assertEquals(0.00015, from.distanceTo(to), 1e-12);
+            assertFalse(to.isDroneInNoFlyZone(noFlyZones));
+            assertFalse(from.isDronePassingNoFlyZone(noFlyZones, to));
+            position = to;
+        }
+        assertTrue(position.closeTo(target));
+    }
+    @Test
+    @DisplayName("Testing if optimised greedy paths are valid and never longer")
+    void testOptimisedGreedyPaths()
+    {
+        NoFlyZoneIndex index = new NoFlyZoneIndex(noFlyZones);
+        PathOptimiser optimiser = new PathOptimiser(index);
+        for (Restaurant restaurant : restaurants) {
+            LngLat target = new LngLat(restaurant.longitude, restaurant.latitude);
+            ArrayList<DronePath> path = Drone.findGreedyPath(startCoordinates, target, index);
+            ArrayList<DronePath> optimised = optimiser.optimise(path, target);
+            assertTrue(optimised.size() <= path.size());
+            assertValidPath(optimised, startCoordinates, target);
+        }
+    }
+    @Test
+    @DisplayName("Testing if a detour is cut out of a path")
+    void testDetourIsRemoved()
+    {
+        ArrayList<DronePath> path = new ArrayList<>();
+        LngLat position = startCoordinates;
+        for (Drone.Compass direction : new Drone.Compass[]{Drone.Compass.N, Drone.Compass.N, Drone.Compass.N,
+                Drone.Compass.E, Drone.Compass.S, Drone.Compass.S, Drone.Compass.S}) {
+            LngLat next = position.nextPosition(direction.angle);
+            path.add(new DronePath(direction.angle, position, next));
+            position = next;
+        }
+        PathOptimiser optimiser = new PathOptimiser(new NoFlyZoneIndex(new NoFlyZones[0]));
+        ArrayList<DronePath> optimised = optimiser.optimise(path, position);
+        assertTrue(optimised.size() < path.size());
+        assertValidPath(optimised, startCoordinates, position);
+    }
+    @Test
+    @DisplayName("Testing if the route planner reports the moves it saved")
+    void testMovesSavedAreReported()
+    {
+        try (RoutePlanner planner = new RoutePlanner(PathfindingAlgorithm.GREEDY, 2, null, true)) {
+            var paths = planner.planRestaurantPaths(restaurants, startCoordinates, new NoFlyZoneIndex(noFlyZones));
+            ArrayList<DronePath> greedyPath;
+            for (Restaurant restaurant : restaurants) {
+                greedyPath = Drone.findGreedyPath(startCoordinates,
+                        new LngLat(restaurant.longitude, restaurant.latitude), new NoFlyZoneIndex(noFlyZones));
+                int saved = planner.getMovesSaved().get(restaurant);
+                assertEquals(2 * greedyPath.size() + 2 - saved, paths.get(restaurant).size());
+            }
+        }
+    }
+}
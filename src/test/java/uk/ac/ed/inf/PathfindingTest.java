@@ -0,0 +1,203 @@
+package uk.ac.ed.inf;
+
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+import org.junit.jupiter.api.DisplayName;
+
+public class PathfindingTest
+{
+    LngLat startCoordinates = new LngLat(-3.186874, 55.944494);
+    Restaurant[] restaurants;
+    NoFlyZones[] noFlyZones;
+
+    @BeforeEach
+    void display(TestInfo info) throws IOException
+    {
+        System.out.println(info.getDisplayName());
+        ObjectMapper mapper = new ObjectMapper();
+        restaurants = mapper.readValue(getClass().getResource("/restaurants.json"), Restaurant[].class);
+        noFlyZones = mapper.readValue(getClass().getResource("/noFlyZones.json"), NoFlyZones[].class);
+    }
+    @Test
+    @DisplayName("Testing if A* paths reach every restaurant without entering or crossing a no-fly zone")
+    void testAStarPathsAreValid()
+    {
+        for (Restaurant restaurant : restaurants) {
+            LngLat target = new LngLat(restaurant.longitude, restaurant.latitude);
+            ArrayList<DronePath> path = new AStarSearch().findPath(startCoordinates, target,
+                    new NoFlyZoneIndex(noFlyZones));
+            assertNotNull(path);
+            DronePath lastMove = path.get(path.size() - 1);
+            assertTrue(new LngLat(lastMove.endLongitude, lastMove.endLatitude).closeTo(target));
+            for (DronePath move : path) {
+                LngLat from = new LngLat(move.startLongitude, move.startLatitude);
+                LngLat to = new LngLat(move.endLongitude, move.endLatitude);
+                assertFalse(to.isDroneInNoFlyZone(noFlyZones));
+                assertFalse(from.isDronePassingNoFlyZone(noFlyZones, to));
+            }
+        }
+    }
+    @Test
+    @DisplayName("Testing if A* round trips are never longer than greedy ones")
+    void testAStarNotLongerThanGreedy()
+    {
+        HashMap<Restaurant, ArrayList<DronePath>> greedyPaths = Drone.planRestaurantPaths(
+                PathfindingAlgorithm.GREEDY, restaurants, startCoordinates, noFlyZones);
+        HashMap<Restaurant, ArrayList<DronePath>> aStarPaths = Drone.planRestaurantPaths(
+                PathfindingAlgorithm.A_STAR, restaurants, startCoordinates, noFlyZones);
+        for (Restaurant restaurant : restaurants) {
+            assertTrue(aStarPaths.get(restaurant).size() <= greedyPaths.get(restaurant).size());
+        }
+    }
+    @Test
+    @DisplayName("Testing if concurrent planning gives the same paths as sequential planning")
+    void testConcurrentPlanningMatchesSequential()
+    {
+        HashMap<Restaurant, ArrayList<DronePath>> sequentialPaths = Drone.GreedyAlgorithm(restaurants,
+                startCoordinates, noFlyZones);
+        HashMap<Restaurant, ArrayList<DronePath>> concurrentPaths;
+        try (RoutePlanner planner = new RoutePlanner(PathfindingAlgorithm.GREEDY, 4)) {
+            concurrentPaths = planner.planRestaurantPaths(restaurants, startCoordinates,
+                    new NoFlyZoneIndex(noFlyZones));
+        }
+        assertEquals(sequentialPaths.keySet(), concurrentPaths.keySet());
+        for (Restaurant restaurant : restaurants) {
+            ArrayList<DronePath> expected = sequentialPaths.get(restaurant);
+            ArrayList<DronePath> actual = concurrentPaths.get(restaurant);
+            assertEquals(expected.size(), actual.size());
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(expected.get(i).endLongitude, actual.get(i).endLongitude);
+                assertEquals(expected.get(i).endLatitude, actual.get(i).endLatitude);
+            }
+        }
+    }
+    @Test
+    @DisplayName("Testing if compass moves go in the direction of their angle in degrees")
+    void testCompassSteps()
+    {
+        LngLat north = startCoordinates.nextPosition(Drone.Compass.N);
+        assertEquals(startCoordinates.lng(), north.lng(), 1e-12);
+        assertEquals(startCoordinates.lat() + 0.00015, north.lat(), 1e-12);
+        LngLat west = startCoordinates.nextPosition(Drone.Compass.W.angle);
+        assertEquals(startCoordinates.lng() - 0.00015, west.lng(), 1e-12);
+        for (Drone.Compass direction : Drone.Compass.values()) {
+            assertEquals(startCoordinates.nextPosition(direction.angle), startCoordinates.nextPosition(direction));
+            assertEquals(0.00015, startCoordinates.distanceTo(startCoordinates.nextPosition(direction)), 1e-12);
+        }
+    }
+    @Test
+    @DisplayName("Testing if choosing a greedy move allocates nothing")
+    void testGreedyStepDoesNotAllocate()
+    {
+        NoFlyZoneIndex index = new NoFlyZoneIndex(noFlyZones);
+        Restaurant restaurant = restaurants[0];
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) java.lang.management.ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        int direction = 0;
+        for (int i = 0; i < 10_000; i++) {
+            direction += MoveKernel.bestGreedyDirection(startCoordinates.lng(), startCoordinates.lat(),
+                    restaurant.longitude, restaurant.latitude, index);
+        }
+        long before = threads.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < 10_000; i++) {
+            direction += MoveKernel.bestGreedyDirection(startCoordinates.lng(), startCoordinates.lat(),
+                    restaurant.longitude, restaurant.latitude, index);
+        }
+        long allocated = threads.getThreadAllocatedBytes(thread) - before;
+        assertTrue(direction >= 0);
+        assertTrue(allocated < 1024, allocated + " bytes allocated");
+    }
+    NoFlyZones zone(String name, double lng, double lat, double size)
+    {
+        NoFlyZones zone = new NoFlyZones();
+        zone.name = name;
+        zone.coordinates = List.of(List.of(lng, lat), List.of(lng + size, lat), List.of(lng + size, lat + size),
+                List.of(lng, lat + size), List.of(lng, lat));
+        return zone;
+    }
+    void assertSamePaths(HashMap<Restaurant, ArrayList<DronePath>> expected,
+                         HashMap<Restaurant, ArrayList<DronePath>> actual)
+    {
+        for (Restaurant restaurant : restaurants) {
+            assertEquals(expected.get(restaurant).size(), actual.get(restaurant).size());
+            for (int i = 0; i < expected.get(restaurant).size(); i++) {
+                assertEquals(expected.get(restaurant).get(i).endLongitude, actual.get(restaurant).get(i).endLongitude);
+                assertEquals(expected.get(restaurant).get(i).endLatitude, actual.get(restaurant).get(i).endLatitude);
+            }
+        }
+    }
+    @Test
+    @DisplayName("Testing if a zone far from every path causes no re-planning")
+    void testFarZoneChangeReusesPaths()
+    {
+        try (RoutePlanner planner = new RoutePlanner(PathfindingAlgorithm.GREEDY, 2)) {
+            planner.planRestaurantPaths(restaurants, startCoordinates, new NoFlyZoneIndex(noFlyZones));
+            assertEquals(restaurants.length, planner.getPathsPlanned());
+            planner.planRestaurantPaths(restaurants, startCoordinates, new NoFlyZoneIndex(noFlyZones));
+            assertEquals(0, planner.getPathsPlanned());
+            List<NoFlyZones> changed = new ArrayList<>(List.of(noFlyZones));
+            changed.add(zone("Far away", -3.17, 55.96, 0.001));
+            planner.planRestaurantPaths(restaurants, startCoordinates,
+                    new NoFlyZoneIndex(changed.toArray(new NoFlyZones[0])));
+            assertEquals(0, planner.getPathsPlanned());
+        }
+    }
+    @Test
+    @DisplayName("Testing if incremental re-planning gives the same paths as planning from scratch")
+    void testIncrementalMatchesFullPlanning()
+    {
+        NoFlyZones[] changed = Arrays.copyOfRange(noFlyZones, 1, noFlyZones.length);
+        for (PathfindingAlgorithm algorithm : PathfindingAlgorithm.values()) {
+            HashMap<Restaurant, ArrayList<DronePath>> incremental;
+            HashMap<Restaurant, ArrayList<DronePath>> full;
+            try (RoutePlanner planner = new RoutePlanner(algorithm, 2)) {
+                planner.planRestaurantPaths(restaurants, startCoordinates, new NoFlyZoneIndex(noFlyZones));
+                incremental = planner.planRestaurantPaths(restaurants, startCoordinates,
+                        new NoFlyZoneIndex(changed));
+                assertTrue(planner.getPathsPlanned() > 0);
+            }
+            try (RoutePlanner planner = new RoutePlanner(algorithm, 2)) {
+                full = planner.planRestaurantPaths(restaurants, startCoordinates, new NoFlyZoneIndex(changed));
+            }
+            assertSamePaths(full, incremental);
+        }
+    }
+    @Test
+    @DisplayName("Testing if a restaurant that can not be reached is left out instead of stalling planning")
+    void testUnreachableRestaurantSkipped()
+    {
+        Restaurant walledIn = new Restaurant();
+        walledIn.name = "Walled in";
+        walledIn.longitude = -3.1700;
+        walledIn.latitude = 55.9600;
+        walledIn.menu = List.of();
+        Restaurant[] withWalledIn = Arrays.copyOf(restaurants, restaurants.length + 1);
+        withWalledIn[restaurants.length] = walledIn;
+        List<NoFlyZones> zones = new ArrayList<>(List.of(noFlyZones));
+        zones.add(zone("Wall", -3.1705, 55.9595, 0.001));
+        NoFlyZoneIndex index = new NoFlyZoneIndex(zones.toArray(new NoFlyZones[0]));
+
+        assertNull(Drone.findGreedyPath(startCoordinates, new LngLat(walledIn.longitude, walledIn.latitude),
+                index, PathfindingAlgorithm.MAX_FALLBACK_MOVES));
+        HashMap<Restaurant, ArrayList<DronePath>> paths = Drone.planRestaurantPaths(PathfindingAlgorithm.A_STAR,
+                withWalledIn, startCoordinates, index);
+        assertFalse(paths.containsKey(walledIn));
+        assertEquals(restaurants.length, paths.size());
+        ArrayList<Map.Entry<Restaurant, Integer>> byDistance = Restaurant.getRestaurantsByDistance(paths,
+                withWalledIn);
+        assertEquals(restaurants.length, byDistance.size());
+        for (Map.Entry<Restaurant, Integer> restaurant : byDistance) {
+            assertNotNull(restaurant.getKey());
+        }
+    }
+}
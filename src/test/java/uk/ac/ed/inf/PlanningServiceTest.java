@@ -0,0 +1,106 @@
+package uk.ac.ed.inf;
+
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+import org.junit.jupiter.api.DisplayName;
+
+public class PlanningServiceTest
+{
+    PlanningService service;
+    RoutePlanner planner;
+    HttpClient client = HttpClient.newHttpClient();
+    String baseUrl;
+
+    @BeforeEach
+    void display(TestInfo info) throws IOException, URISyntaxException
+    {
+        System.out.println(info.getDisplayName());
+        DataSource dataSource = new SnapshotDataSource(Path.of("orders"),
+                Path.of(getClass().getResource("/restaurants.json").toURI()),
+                Path.of(getClass().getResource("/noFlyZones.json").toURI()), null);
+        planner = new RoutePlanner(PathfindingAlgorithm.GREEDY, 2);
+        service = new PlanningService(dataSource, planner, new KnapsackScheduler(), App.START_COORDINATES,
+                new InetSocketAddress("127.0.0.1", 0), 4);
+        service.start(60);
+        baseUrl = "http://127.0.0.1:" + service.getPort();
+    }
+    @AfterEach
+    void stop()
+    {
+        service.close();
+        planner.close();
+    }
+    HttpResponse<String> get(String path) throws IOException, InterruptedException
+    {
+        return client.send(HttpRequest.newBuilder(URI.create(baseUrl + path)).build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+    @Test
+    @DisplayName("Testing if the three outputs of a day are served")
+    void testPlanOutputs() throws IOException, InterruptedException
+    {
+        JsonNode deliveries = Json.MAPPER.readTree(get("/plan/deliveries?date=2023-01-01").body());
+        assertEquals(9, deliveries.size());
+        assertEquals("Delivered", deliveries.get(0).get("outcome").asText());
+        JsonNode flightPath = Json.MAPPER.readTree(get("/plan/flightpath?date=2023-01-01").body());
+        assertTrue(flightPath.size() > 0);
+        JsonNode drone = Json.MAPPER.readTree(get("/plan/drone?date=2023-01-01").body());
+        assertEquals("FeatureCollection", drone.get("type").asText());
+        assertEquals(flightPath.size() + 1,
+                drone.get("features").get(0).get("geometry").get("coordinates").size());
+    }
+    @Test
+    @DisplayName("Testing if concurrent requests for a date get the same plan")
+    void testConcurrentRequests() throws Exception
+    {
+        List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            responses.add(client.sendAsync(HttpRequest.newBuilder(
+                    URI.create(baseUrl + "/plan/flightpath?date=2023-01-02")).build(),
+                    HttpResponse.BodyHandlers.ofString()));
+        }
+        String first = responses.get(0).get().body();
+        for (CompletableFuture<HttpResponse<String>> response : responses) {
+            assertEquals(200, response.get().statusCode());
+            assertEquals(first, response.get().body());
+        }
+    }
+    @Test
+    @DisplayName("Testing if posted orders are validated")
+    void testValidate() throws IOException, InterruptedException
+    {
+        String orders;
+        try (OrderReader reader = OrderReader.fromFile(Path.of("orders"), "2023-01-01")) {
+            orders = Json.MAPPER.writeValueAsString(List.of(reader.next()));
+        }
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/validate"))
+                .POST(HttpRequest.BodyPublishers.ofString(orders)).build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode());
+        JsonNode outcomes = Json.MAPPER.readTree(response.body());
+        assertEquals(1, outcomes.size());
+        assertEquals("Delivered", outcomes.get(0).get("outcome").asText());
+    }
+    @Test
+    @DisplayName("Testing if bad requests are rejected")
+    void testBadRequests() throws IOException, InterruptedException
+    {
+        assertEquals(400, get("/plan/deliveries?date=2024-13-01").statusCode());
+        assertEquals(400, get("/plan/deliveries").statusCode());
+        assertEquals(405, get("/validate").statusCode());
+    }
+}
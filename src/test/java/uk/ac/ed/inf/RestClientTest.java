@@ -0,0 +1,83 @@
+package uk.ac.ed.inf;
+
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+import org.junit.jupiter.api.DisplayName;
+
+public class RestClientTest
+{
+    HttpServer server;
+    String baseUrl;
+    byte[] restaurantsJson;
+    AtomicInteger failuresLeft = new AtomicInteger();
+
+    @BeforeEach
+    void display(TestInfo info) throws IOException
+    {
+        System.out.println(info.getDisplayName());
+        try (InputStream in = getClass().getResourceAsStream("/restaurants.json")) {
+            restaurantsJson = in.readAllBytes();
+        }
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/restaurants", exchange -> {
+            if (failuresLeft.getAndDecrement() > 0) {
+                exchange.sendResponseHeaders(503, -1);
+                exchange.close();
+                return;
+            }
+            boolean gzip = exchange.getRequestHeaders().getFirst("Accept-Encoding").contains("gzip");
+            if (gzip) {
+                exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+            }
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream out = gzip ? new GZIPOutputStream(exchange.getResponseBody()) : exchange.getResponseBody()) {
+                out.write(restaurantsJson);
+            }
+        });
+        server.createContext("/missing", exchange -> {
+            failuresLeft.decrementAndGet();
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+        });
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+    }
+    @AfterEach
+    void stop()
+    {
+        server.stop(0);
+    }
+    @Test
+    @DisplayName("Testing if a gzipped response is decompressed and parsed")
+    void testGzipResponse()
+    {
+        Restaurant[] restaurants = Restaurant.getRestaurantsFromRestServer(baseUrl);
+        assertEquals(4, restaurants.length);
+        assertEquals("Civerinos Slice", restaurants[0].name);
+    }
+    @Test
+    @DisplayName("Testing if server errors are retried")
+    void testRetry() throws IOException
+    {
+        failuresLeft.set(2);
+        assertEquals(4, RestClient.<Restaurant[]>getJson(baseUrl + "restaurants", Json.RESTAURANTS).length);
+    }
+    @Test
+    @DisplayName("Testing if client errors are not retried")
+    void testNoRetryOnClientError()
+    {
+        failuresLeft.set(0);
+        assertThrows(IOException.class, () -> RestClient.get(baseUrl + "missing"));
+        assertEquals(-1, failuresLeft.get());
+    }
+}
@@ -0,0 +1,102 @@
+package uk.ac.ed.inf;
+
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+import org.junit.jupiter.api.DisplayName;
+
+public class RouteTableTest
+{
+    LngLat startCoordinates = new LngLat(-3.186874, 55.944494);
+    Restaurant[] restaurants;
+    NoFlyZones[] noFlyZones;
+    NoFlyZoneIndex index;
+
+    @BeforeEach
+    void display(TestInfo info) throws IOException
+    {
+        System.out.println(info.getDisplayName());
+        ObjectMapper mapper = new ObjectMapper();
+        restaurants = mapper.readValue(getClass().getResource("/restaurants.json"), Restaurant[].class);
+        noFlyZones = mapper.readValue(getClass().getResource("/noFlyZones.json"), NoFlyZones[].class);
+        index = new NoFlyZoneIndex(noFlyZones);
+    }
+    void assertValidPath(ArrayList<DronePath> path, LngLat start, LngLat target)
+    {
+        LngLat position = start;
+        for (DronePath move : path) {
+            LngLat from = new LngLat(move.startLongitude, move.startLatitude);
+            LngLat to = new LngLat(move.endLongitude, move.endLatitude);
+            assertEquals(position, from);
+            assertEquals(0.00015, from.distanceTo(to), 1e-12);
+            assertFalse(to.isDroneInNoFlyZone(noFlyZones));
+            assertFalse(from.isDronePassingNoFlyZone(noFlyZones, to));
+            position = to;
+        }
+        assertTrue(position.closeTo(target));
+    }
+    @Test
+    @DisplayName("Testing if table walks reach every restaurant and are not longer than greedy paths")
+    void testTableWalkToRestaurants()
+    {
+        try (RoutePlanner planner = new RoutePlanner(PathfindingAlgorithm.GREEDY)) {
+            RouteTables tables = planner.planRouteTables(restaurants, startCoordinates, index);
+            for (Restaurant restaurant : restaurants) {
+                LngLat target = new LngLat(restaurant.longitude, restaurant.latitude);
+                ArrayList<DronePath> path = tables.pathToRestaurant(restaurant, startCoordinates);
+                assertValidPath(path, startCoordinates, target);
+                assertTrue(path.size() <= Drone.findGreedyPath(startCoordinates, target, index).size());
+            }
+        }
+    }
+    @Test
+    @DisplayName("Testing if a drone can be routed home from a position mid-flight")
+    void testRouteHomeMidFlight()
+    {
+        try (RoutePlanner planner = new RoutePlanner(PathfindingAlgorithm.GREEDY)) {
+            RouteTables tables = planner.planRouteTables(restaurants, startCoordinates, index);
+            for (Restaurant restaurant : restaurants) {
+                ArrayList<DronePath> path = tables.pathToRestaurant(restaurant, startCoordinates);
+                DronePath halfway = path.get(path.size() / 2);
+                LngLat position = new LngLat(halfway.endLongitude, halfway.endLatitude);
+                assertValidPath(tables.pathToBase(position), position, startCoordinates);
+            }
+        }
+    }
+    @Test
+    @DisplayName("Testing if the planner walks paths through route tables it keeps between plannings")
+    void testPlannerKeepsTables()
+    {
+        try (RoutePlanner planner = new RoutePlanner(PathfindingAlgorithm.ROUTE_TABLE)) {
+            HashMap<Restaurant, ArrayList<DronePath>> restaurantPaths =
+                    planner.planRestaurantPaths(restaurants, startCoordinates, index);
+            RouteTables tables = planner.getRouteTables();
+            assertNotNull(tables);
+            for (Restaurant restaurant : restaurants) {
+                ArrayList<DronePath> path = tables.pathToRestaurant(restaurant, startCoordinates);
+                assertEquals(2 * path.size() + 2, restaurantPaths.get(restaurant).size());
+            }
+            planner.planRestaurantPaths(restaurants, startCoordinates, index);
+            assertSame(tables, planner.getRouteTables());
+        }
+        try (RoutePlanner planner = new RoutePlanner(PathfindingAlgorithm.GREEDY)) {
+            planner.planRestaurantPaths(restaurants, startCoordinates, index);
+            assertNull(planner.getRouteTables());
+        }
+    }
+    @Test
+    @DisplayName("Testing if a walk starting outside the table falls back to a search")
+    void testFallbackOutsideGrid()
+    {
+        LngLat target = new LngLat(restaurants[0].longitude, restaurants[0].latitude);
+        RouteTable table = RouteTable.build(target, List.of(), 0.0005, index);
+        assertEquals(-1, table.getMovesLeft(startCoordinates.lng(), startCoordinates.lat()));
+        assertValidPath(table.findPath(startCoordinates, index), startCoordinates, target);
+    }
+}
@@ -0,0 +1,56 @@
+package uk.ac.ed.inf;
+
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+import org.junit.jupiter.api.DisplayName;
+
+public class RunMetricsTest
+{
+    @BeforeEach
+    void display(TestInfo info)
+    {
+        System.out.println(info.getDisplayName());
+    }
+    @Test
+    @DisplayName("Testing if a day's metrics include the phases of its run")
+    void testDayIncludesRun() throws IOException
+    {
+        RunMetrics run = new RunMetrics();
+        run.addTime("pathfinding", 2_000_000);
+        RunMetrics day = run.newDay();
+        day.addTime("validation", 1_000_000);
+        day.count("movesFlown", 642);
+        day.time("writeFlightPath", () -> day.count("movesFlown", 1));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        day.write("2023-01-01", out);
+        JsonNode metrics = Json.MAPPER.readTree(out.toByteArray());
+        assertEquals("2023-01-01", metrics.get("date").asText());
+        assertEquals(2.0, metrics.get("phaseMillis").get("pathfinding").asDouble());
+        assertEquals(1.0, metrics.get("phaseMillis").get("validation").asDouble());
+        assertTrue(metrics.get("phaseMillis").has("writeFlightPath"));
+        assertEquals(643, metrics.get("counters").get("movesFlown").asLong());
+    }
+    @Test
+    @DisplayName("Testing if the run totals add up all days")
+    void testRunTotals()
+    {
+        RunMetrics run = new RunMetrics();
+        run.newDay().count("orders.Delivered", 3);
+        run.newDay().count("orders.Delivered", 4);
+        assertEquals(7L, run.getCounters().get("orders.Delivered"));
+    }
+    @Test
+    @DisplayName("Testing if planning a move counts its candidate moves")
+    void testCandidateMovesCounted()
+    {
+        PlanningCounters counters = new PlanningCounters();
+        NoFlyZoneIndex noFlyZones = new NoFlyZoneIndex(new NoFlyZones[0]).withCounters(counters);
+        MoveKernel.bestGreedyDirection(-3.186874, 55.944494, -3.19, 55.95, noFlyZones);
+        assertEquals(16, counters.getCandidateMoves());
+    }
+}
@@ -0,0 +1,99 @@
+package uk.ac.ed.inf;
+
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+
+public class SnapshotDataSourceTest
+{
+    SnapshotDataSource dataSource;
+
+    @BeforeEach
+    void display(TestInfo info) throws URISyntaxException
+    {
+        System.out.println(info.getDisplayName());
+        dataSource = new SnapshotDataSource(Path.of("orders"),
+                Path.of(getClass().getResource("/restaurants.json").toURI()),
+                Path.of(getClass().getResource("/noFlyZones.json").toURI()), null);
+    }
+    void assertSameOrders(Order[] expected, Order[] actual)
+    {
+        assertEquals(expected.length, actual.length);
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i].orderNo, actual[i].orderNo);
+            assertEquals(expected[i].orderDate, actual[i].orderDate);
+            assertEquals(expected[i].customer, actual[i].customer);
+            assertEquals(expected[i].creditCardNumber, actual[i].creditCardNumber);
+            assertEquals(expected[i].creditCardExpiry, actual[i].creditCardExpiry);
+            assertEquals(expected[i].cvv, actual[i].cvv);
+            assertEquals(expected[i].priceTotalInPence, actual[i].priceTotalInPence);
+            assertArrayEquals(expected[i].orderItems, actual[i].orderItems);
+        }
+    }
+    @Test
+    @DisplayName("Testing if every day read from the index matches reading the whole snapshot")
+    void testEveryDay()
+    {
+        assertEquals(150, dataSource.getDates().size());
+        for (String date : dataSource.getDates()) {
+            assertSameOrders(Order.getOrdersFromFile(Path.of("orders"), date), dataSource.getOrders(date));
+        }
+        assertEquals(0, dataSource.getOrders("2024-01-01").length);
+    }
+    @Test
+    @DisplayName("Testing if orders validated while they are read from the snapshot get their outcomes")
+    void testValidateOrdersByDate() throws InvalidPizzaCombinationException
+    {
+        MenuIndex menuIndex = new MenuIndex(dataSource.getRestaurants());
+        List<String> dates = List.of("2023-01-01", "2023-03-15");
+        Map<String, ValidatedOrders> ordersByDate = dataSource.validateOrdersByDate(dates, menuIndex);
+        for (String date : dates) {
+            Order[] orders = dataSource.getOrders(date);
+            assertEquals(orders.length, ordersByDate.get(date).getOrders().size());
+            for (Order order : orders) {
+                assertEquals(order.isOrderValid(menuIndex), ordersByDate.get(date).getOutcome(order.orderNo));
+            }
+        }
+    }
+    @Test
+    @DisplayName("Testing if orders of a day spread over the snapshot are all found")
+    void testUnsortedSnapshot(@TempDir Path directory) throws IOException
+    {
+        Path snapshot = directory.resolve("orders");
+        Files.writeString(snapshot, "[{\"orderNo\":\"1\",\"orderDate\":\"2023-01-01\",\"orderItems\":[\"A\"]},\n"
+                + "{\"orderNo\":\"2\",\"orderDate\":\"2023-01-02\",\"orderItems\":[]},\n"
+                + "{\"orderNo\":\"3\",\"orderDate\":\"2023-01-01\",\"orderItems\":[\"B\",\"C\"]}]");
+        SnapshotDataSource unsorted = new SnapshotDataSource(snapshot, null, null, null);
+        Order[] firstDay = unsorted.getOrders("2023-01-01");
+        assertEquals(2, firstDay.length);
+        assertEquals("1", firstDay[0].orderNo);
+        assertArrayEquals(new String[]{"B", "C"}, firstDay[1].orderItems);
+        assertEquals("2", unsorted.getOrders("2023-01-02")[0].orderNo);
+    }
+    @Test
+    @DisplayName("Testing if restaurant and no-fly zone snapshots are read and compiled")
+    void testReferenceData() throws IOException
+    {
+        Restaurant[] expected = new ObjectMapper().readValue(getClass().getResource("/restaurants.json"),
+                Restaurant[].class);
+        Restaurant[] restaurants = dataSource.getRestaurants();
+        assertEquals(expected.length, restaurants.length);
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i].name, restaurants[i].name);
+            assertEquals(expected[i].getMenu().length, restaurants[i].getMenu().length);
+        }
+        NoFlyZones[] noFlyZones = dataSource.getNoFlyZones();
+        assertEquals(4, noFlyZones.length);
+        assertNotNull(noFlyZones[0].getCompiled());
+    }
+}
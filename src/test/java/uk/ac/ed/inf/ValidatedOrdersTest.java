@@ -0,0 +1,78 @@
+package uk.ac.ed.inf;
+
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+import org.junit.jupiter.api.DisplayName;
+
+public class ValidatedOrdersTest
+{
+    MenuIndex menuIndex;
+
+    @BeforeEach
+    void display(TestInfo info) throws IOException
+    {
+        System.out.println(info.getDisplayName());
+        menuIndex = new MenuIndex(new ObjectMapper().readValue(getClass().getResource("/restaurants.json"),
+                Restaurant[].class));
+    }
+    @Test
+    @DisplayName("Testing if every order gets the outcome of a single validation")
+    void testOutcomesMatchValidation() throws InvalidPizzaCombinationException
+    {
+        Order[] orders = Order.getOrdersFromFile(Path.of("orders"), null);
+        ValidatedOrders validatedOrders = ValidatedOrders.validate(menuIndex, Arrays.asList(orders));
+        int validOrders = 0;
+        for (Order order : orders) {
+            OrderOutcome outcome = order.isOrderValid(menuIndex);
+            assertEquals(outcome, validatedOrders.getOutcome(order.orderNo));
+            if (outcome == OrderOutcome.ValidButNotDelivered) {
+                validOrders++;
+            }
+        }
+        int groupedOrders = 0;
+        for (ArrayList<Order> restaurantOrders : validatedOrders.getValidOrdersByRestaurant().values()) {
+            groupedOrders += restaurantOrders.size();
+        }
+        assertEquals(validOrders, groupedOrders);
+        assertEquals(orders.length, validatedOrders.getOrders().size());
+    }
+    @Test
+    @DisplayName("Testing if delivering an order changes its outcome")
+    void testMarkDelivered() throws InvalidPizzaCombinationException
+    {
+        Order[] orders = Order.getOrdersFromFile(Path.of("orders"), "2023-01-01");
+        ValidatedOrders validatedOrders = ValidatedOrders.validate(menuIndex, Arrays.asList(orders));
+        Order order = validatedOrders.getValidOrdersByRestaurant().values().iterator().next().get(0);
+        validatedOrders.markDelivered(order);
+        assertEquals(OrderOutcome.Delivered, validatedOrders.getOutcome(order.orderNo));
+    }
+    @Test
+    @DisplayName("Testing if the days of one order stream are validated apart while they are read")
+    void testValidateByDate() throws InvalidPizzaCombinationException, IOException
+    {
+        Map<String, ValidatedOrders> ordersByDate;
+        try (OrderReader reader = OrderReader.fromFile(Path.of("orders"), null)) {
+            ordersByDate = ValidatedOrders.validateByDate(menuIndex, () -> reader,
+                    List.of("2023-01-01", "2023-01-02", "2024-01-01"));
+        }
+        assertEquals(3, ordersByDate.size());
+        assertTrue(ordersByDate.get("2024-01-01").getOrders().isEmpty());
+        for (String date : List.of("2023-01-01", "2023-01-02")) {
+            Order[] orders = Order.getOrdersFromFile(Path.of("orders"), date);
+            ValidatedOrders validatedOrders = ordersByDate.get(date);
+            assertEquals(orders.length, validatedOrders.getOrders().size());
+            for (Order order : orders) {
+                assertEquals(order.isOrderValid(menuIndex), validatedOrders.getOutcome(order.orderNo));
+            }
+        }
+    }
+}